@@ -0,0 +1,146 @@
+package io.theo.json;
+
+import io.theo.json.benchmarkObjects.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+// Throughput of the serializer and deserializer across payload shapes and sizes.
+// Run with: ant benchmark (which adds -prof gc, so each result also reports the bytes allocated per operation)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class JsonBenchmarks
+{
+    private static final int MaxDepth = 32;
+    private static final int SampleCount = 256;
+
+    // Each shape builds a root object out of a number of units, which is scaled to reach the requested Json size
+    public enum Shape
+    {
+        Flat(FlatObject[].class, (count, random) -> {
+            FlatObject[] items = new FlatObject[count];
+            for (int i = 0; i < count; i++)
+                items[i] = new FlatObject(i, random);
+            return items;
+        }),
+        Deep(NestedObject[].class, (count, random) -> {
+            NestedObject[] items = new NestedObject[count];
+            for (int i = 0; i < count; i++)
+                items[i] = new NestedObject(MaxDepth);
+            return items;
+        }),
+        Wide(WideObject[].class, (count, random) -> {
+            WideObject[] items = new WideObject[count];
+            for (int i = 0; i < count; i++)
+                items[i] = new WideObject(random);
+            return items;
+        }),
+        Strings(String[].class, (count, random) -> {
+            String[] items = new String[count];
+            for (int i = 0; i < count; i++)
+                items[i] = new UUID(random.nextLong(), random.nextLong()).toString();
+            return items;
+        }),
+        Numbers(double[].class, (count, random) -> {
+            double[] items = new double[count];
+            for (int i = 0; i < count; i++)
+                items[i] = random.nextDouble() * 1_000_000;
+            return items;
+        }),
+        Map(StringMapObject.class, (count, random) -> {
+            Map<String, String> items = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++)
+                items.put("Key" + i, Long.toHexString(random.nextLong()));
+            return new StringMapObject(items);
+        }),
+        Bytes(ByteArrayObject.class, (count, random) -> {
+            byte[] items = new byte[count];
+            random.nextBytes(items);
+            return new ByteArrayObject(items);
+        });
+
+        private final Class<?> _type;
+        private final BiFunction<Integer, Random, Object> _factory;
+
+        Shape(final Class<?> type, final BiFunction<Integer, Random, Object> factory)
+        {
+            _type = type;
+            _factory = factory;
+        }
+
+        public Object create(final int size)
+        {
+            int sampleSize = Json.toJsonString(_factory.apply(SampleCount, new Random(42))).length();
+            int count = (int)Math.max(1, (long)size * SampleCount / sampleSize);
+            return _factory.apply(count, new Random(42));
+        }
+    }
+
+    @Param({ "Flat", "Deep", "Wide", "Strings", "Numbers", "Map", "Bytes" })
+    public Shape shape;
+
+    @Param({ "100", "10000", "1000000", "10000000" })
+    public int size;
+
+    private Object _payload;
+    private String _json;
+    private byte[] _utf8;
+    private final OutputStream _nullOutputStream = new NullOutputStream();
+
+    @Setup
+    public void setUp()
+    {
+        _payload = shape.create(size);
+        _json = Json.toJsonString(_payload);
+        _utf8 = _json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String serialize()
+    {
+        return Json.toJsonString(_payload);
+    }
+
+    @Benchmark
+    public void serializeToStream() throws IOException
+    {
+        Json.writeTo(_payload, _nullOutputStream);
+    }
+
+    @Benchmark
+    public Object deserialize()
+    {
+        return Json.toObj(shape._type, _json);
+    }
+
+    @Benchmark
+    public Object deserializeUtf8()
+    {
+        return Json.toObj(shape._type, _utf8, 0, _utf8.length);
+    }
+
+    private static final class NullOutputStream extends OutputStream
+    {
+        @Override
+        public void write(final int b)
+        {
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length)
+        {
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package io.theo.json.benchmarkObjects;
+
+public class ByteArrayObject
+{
+    public byte[] Value;
+
+    public ByteArrayObject()
+    {
+    }
+
+    public ByteArrayObject(final byte[] value)
+    {
+        Value = value;
+    }
+}
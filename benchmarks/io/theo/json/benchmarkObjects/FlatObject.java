@@ -0,0 +1,27 @@
+package io.theo.json.benchmarkObjects;
+
+import java.util.Random;
+
+public class FlatObject
+{
+    public int Id;
+    public String Name;
+    public String Email;
+    public double Balance;
+    public boolean IsActive;
+    public long CreatedAt;
+
+    public FlatObject()
+    {
+    }
+
+    public FlatObject(final int id, final Random random)
+    {
+        Id = id;
+        Name = "Customer " + id;
+        Email = "customer" + id + "@example.com";
+        Balance = random.nextInt(10_000_000) / 100.0;
+        IsActive = random.nextBoolean();
+        CreatedAt = 1_500_000_000_000L + random.nextInt(Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,20 @@
+package io.theo.json.benchmarkObjects;
+
+public class NestedObject
+{
+    public int Depth;
+    public String Name;
+    public NestedObject Child;
+
+    public NestedObject()
+    {
+    }
+
+    public NestedObject(final int depth)
+    {
+        Depth = depth;
+        Name = "Level " + depth;
+        if (depth > 1)
+            Child = new NestedObject(depth - 1);
+    }
+}
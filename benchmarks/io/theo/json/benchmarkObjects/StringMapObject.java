@@ -0,0 +1,17 @@
+package io.theo.json.benchmarkObjects;
+
+import java.util.Map;
+
+public class StringMapObject
+{
+    public Map<String, String> Value;
+
+    public StringMapObject()
+    {
+    }
+
+    public StringMapObject(final Map<String, String> value)
+    {
+        Value = value;
+    }
+}
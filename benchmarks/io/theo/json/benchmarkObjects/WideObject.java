@@ -0,0 +1,95 @@
+package io.theo.json.benchmarkObjects;
+
+import java.util.Random;
+
+public class WideObject
+{
+    public int Int0;
+    public int Int1;
+    public int Int2;
+    public int Int3;
+    public int Int4;
+    public int Int5;
+    public int Int6;
+    public int Int7;
+    public long Long0;
+    public long Long1;
+    public long Long2;
+    public long Long3;
+    public long Long4;
+    public long Long5;
+    public long Long6;
+    public long Long7;
+    public double Double0;
+    public double Double1;
+    public double Double2;
+    public double Double3;
+    public double Double4;
+    public double Double5;
+    public double Double6;
+    public double Double7;
+    public boolean Boolean0;
+    public boolean Boolean1;
+    public boolean Boolean2;
+    public boolean Boolean3;
+    public boolean Boolean4;
+    public boolean Boolean5;
+    public boolean Boolean6;
+    public boolean Boolean7;
+    public String Text0;
+    public String Text1;
+    public String Text2;
+    public String Text3;
+    public String Text4;
+    public String Text5;
+    public String Text6;
+    public String Text7;
+
+    public WideObject()
+    {
+    }
+
+    public WideObject(final Random random)
+    {
+        Int0 = random.nextInt();
+        Int1 = random.nextInt();
+        Int2 = random.nextInt();
+        Int3 = random.nextInt();
+        Int4 = random.nextInt();
+        Int5 = random.nextInt();
+        Int6 = random.nextInt();
+        Int7 = random.nextInt();
+        Long0 = random.nextLong();
+        Long1 = random.nextLong();
+        Long2 = random.nextLong();
+        Long3 = random.nextLong();
+        Long4 = random.nextLong();
+        Long5 = random.nextLong();
+        Long6 = random.nextLong();
+        Long7 = random.nextLong();
+        Double0 = random.nextDouble() * 1000;
+        Double1 = random.nextDouble() * 1000;
+        Double2 = random.nextDouble() * 1000;
+        Double3 = random.nextDouble() * 1000;
+        Double4 = random.nextDouble() * 1000;
+        Double5 = random.nextDouble() * 1000;
+        Double6 = random.nextDouble() * 1000;
+        Double7 = random.nextDouble() * 1000;
+        Boolean0 = random.nextBoolean();
+        Boolean1 = random.nextBoolean();
+        Boolean2 = random.nextBoolean();
+        Boolean3 = random.nextBoolean();
+        Boolean4 = random.nextBoolean();
+        Boolean5 = random.nextBoolean();
+        Boolean6 = random.nextBoolean();
+        Boolean7 = random.nextBoolean();
+        Text0 = Long.toHexString(random.nextLong());
+        Text1 = Long.toHexString(random.nextLong());
+        Text2 = Long.toHexString(random.nextLong());
+        Text3 = Long.toHexString(random.nextLong());
+        Text4 = Long.toHexString(random.nextLong());
+        Text5 = Long.toHexString(random.nextLong());
+        Text6 = Long.toHexString(random.nextLong());
+        Text7 = Long.toHexString(random.nextLong());
+    }
+}
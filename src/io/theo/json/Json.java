@@ -2,16 +2,62 @@ package io.theo.json;
 
 import sun.reflect.ReflectionFactory;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.*;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.function.BiConsumer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public final class Json
 {
-    private static final Map<Class, List<Field>> _classFields = new HashMap<>();
+    private static final ClassValue<ClassMetadata> _classMetadata = new ClassValue<ClassMetadata>()
+    {
+        @Override
+        protected ClassMetadata computeValue(final Class<?> type)
+        {
+            return createMetadata(type);
+        }
+    };
+    // Classes of the loaders above Json's own, such as String and List, outlive any copy of Json. A ClassValue entry on
+    // them would keep its metadata, and through it a redeployed Json and its loader, alive for good, so Json holds theirs.
+    private static final Map<Class<?>, ClassMetadata> _sharedMetadata = new ConcurrentHashMap<>();
+    private static final ClassLoader[] _sharedLoaders = getAncestors(Json.class.getClassLoader());
+
+    // Null while string deduplication is off
+    private static volatile StringCache _stringCache;
 
     private Json()
     {
@@ -19,13 +65,183 @@ public final class Json
 
     public static String toJsonString(final Object obj)
     {
-        return JsonSerializer.writeJsonValue(new StringBuilder(), obj).toString();
+        return toJsonString(obj, StringJsonWriter.acquire(obj));
+    }
+
+    // Writes the elements of large lists and arrays in parallel chunks. The output is the same as toJsonString.
+    public static String toJsonStringParallel(final Object obj)
+    {
+        return toJsonStringParallel(obj, ForkJoinPool.commonPool());
+    }
+
+    public static String toJsonStringParallel(final Object obj, final Executor executor)
+    {
+        StringJsonWriter writer = StringJsonWriter.acquire(obj);
+        try
+        {
+            writer.inParallel(executor);
+        }
+        catch (JsonException e)
+        {
+            writer.release(obj);
+            throw e;
+        }
+        return toJsonString(obj, writer);
+    }
+
+    private static String toJsonString(final Object obj, final StringJsonWriter writer)
+    {
+        long start = JsonMetrics.IsEnabled ? System.nanoTime() : 0;
+        Object event = JsonEvents.IsAvailable ? JsonEvents.beginEncode() : null;
+        try
+        {
+            String json = JsonSerializer.writeJsonValue(writer, obj).toString();
+            if (JsonMetrics.IsEnabled)
+                JsonMetrics.recordEncode(obj, json.length(), System.nanoTime() - start);
+            if (event != null)
+                JsonEvents.commitEncode(event, obj, json.length());
+            return json;
+        }
+        finally
+        {
+            writer.release(obj);
+        }
+    }
+
+    // Streams the Json text as UTF-8 through a bounded buffer. The stream is flushed but not closed.
+    public static void writeTo(final Object obj, final OutputStream out) throws IOException
+    {
+        writeTo(obj, createJsonWriter(out));
+        out.flush();
+    }
+
+    public static void writeTo(final Object obj, final Writer writer) throws IOException
+    {
+        writeTo(obj, CharJsonWriter.acquire(writer));
+        writer.flush();
+    }
+
+    public static void writeTo(final Object obj, final WritableByteChannel channel) throws IOException
+    {
+        writeTo(obj, createJsonWriter(channel));
+    }
+
+    // Same output as writeTo. Chunks are written on the executor, and only a few of them are held at a time.
+    public static void writeToParallel(final Object obj, final OutputStream out, final Executor executor) throws IOException
+    {
+        writeTo(obj, inParallel(createJsonWriter(out), executor));
+        out.flush();
+    }
+
+    public static void writeToParallel(final Object obj, final Writer writer, final Executor executor) throws IOException
+    {
+        writeTo(obj, inParallel(CharJsonWriter.acquire(writer), executor));
+        writer.flush();
+    }
+
+    public static void writeToParallel(final Object obj, final WritableByteChannel channel, final Executor executor) throws IOException
+    {
+        writeTo(obj, inParallel(createJsonWriter(channel), executor));
+    }
+
+    private static JsonWriter createJsonWriter(final OutputStream out)
+    {
+        return Utf8JsonWriter.acquire((bytes, length) -> out.write(bytes, 0, length));
+    }
+
+    private static JsonWriter createJsonWriter(final WritableByteChannel channel)
+    {
+        return Utf8JsonWriter.acquire((bytes, length) -> {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, length);
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        });
+    }
+
+    // Releases the writer if the executor is rejected, so that its buffer is still reused
+    private static JsonWriter inParallel(final JsonWriter writer, final Executor executor)
+    {
+        try
+        {
+            return writer.inParallel(executor);
+        }
+        catch (JsonException e)
+        {
+            writer.release();
+            throw e;
+        }
+    }
+
+    private static void writeTo(final Object obj, final JsonWriter writer) throws IOException
+    {
+        long start = JsonMetrics.IsEnabled ? System.nanoTime() : 0;
+        Object event = JsonEvents.IsAvailable ? JsonEvents.beginEncode() : null;
+        try
+        {
+            JsonSerializer.writeJsonValue(writer, obj).flush();
+            if (JsonMetrics.IsEnabled)
+                JsonMetrics.recordEncode(obj, writer.length(), System.nanoTime() - start);
+            if (event != null)
+                JsonEvents.commitEncode(event, obj, writer.length());
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+        finally
+        {
+            writer.release();
+        }
     }
 
     @SuppressWarnings("unchecked")
     public static <T> T toObj(final Class<T> type, final String jsonString)
     {
-        return (T)JsonDeserializer.getObjectValue(type, jsonString);
+        return (T)JsonDeserializer.readRootValue(type, jsonString);
+    }
+
+    // Scans the UTF-8 bytes directly, without decoding them to a String first
+    @SuppressWarnings("unchecked")
+    public static <T> T toObj(final Class<T> type, final byte[] json, final int offset, final int length)
+    {
+        return (T)JsonDeserializer.readRootValue(type, new ByteArrayJsonReader(json, offset, length));
+    }
+
+    // Parses the input through a bounded, refillable buffer. Streams are read as UTF-8 and are not closed.
+    // For generic types, such as new Json.TypeOf<Map<String, List<Order>>>() {}.getType(). Named like the stream overloads
+    // rather than toObj, so that calls such as toObj(Foo.class, null) stay unambiguous.
+    // Type variables and wildcards are read as their bounds, unless a superclass binds them.
+    @SuppressWarnings("unchecked")
+    public static <T> T readObj(final Type type, final String jsonString)
+    {
+        return (T)JsonDeserializer.readRootValue(type, jsonString);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T readObj(final Class<T> type, final Reader reader) throws IOException
+    {
+        return readFrom(new CharJsonReader(reader), x -> (T)JsonDeserializer.readRootValue(type, x));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T readObj(final Class<T> type, final InputStream in) throws IOException
+    {
+        return readFrom(new ByteArrayJsonReader(in), x -> (T)JsonDeserializer.readRootValue(type, x));
+    }
+
+    public static <T> T readObj(final Class<T> type, final ReadableByteChannel channel) throws IOException
+    {
+        return readObj(type, toInputStream(channel));
+    }
+
+    // Maps the file instead of reading it, so files of any size are parsed without being copied onto the heap
+    @SuppressWarnings("unchecked")
+    public static <T> T readObj(final Class<T> type, final Path path) throws IOException
+    {
+        try (FileChannel channel = openFile(path))
+        {
+            return readFrom(new MappedJsonReader(channel), x -> (T)JsonDeserializer.readRootValue(type, x));
+        }
     }
 
     public static boolean isJsonObject(final String input)
@@ -36,550 +252,4112 @@ public final class Json
     @SuppressWarnings("unchecked")
     public static <T> List<T> toList(final Class<T> itemType, final String jsonString)
     {
-        return JsonDeserializer.toObjectList(itemType, jsonString);
+        return JsonDeserializer.readRootList(itemType, jsonString);
+    }
+
+    // Decodes the elements of a large array in parallel, keeping their order. Uses the common ForkJoinPool by default.
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> toListParallel(final Class<T> itemType, final String jsonString)
+    {
+        return toListParallel(itemType, jsonString, ForkJoinPool.commonPool());
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> toListParallel(final Class<T> itemType, final String jsonString, final Executor executor)
+    {
+        return JsonDeserializer.readRootListParallel(itemType, jsonString, executor, getParallelism(executor));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> toList(final Class<T> itemType, final byte[] json, final int offset, final int length)
+    {
+        return JsonDeserializer.readRootList(itemType, new ByteArrayJsonReader(json, offset, length));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> readList(final Class<T> itemType, final Reader reader) throws IOException
+    {
+        return readFrom(new CharJsonReader(reader), x -> JsonDeserializer.readRootList(itemType, x));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> readList(final Class<T> itemType, final InputStream in) throws IOException
+    {
+        return readFrom(new ByteArrayJsonReader(in), x -> JsonDeserializer.readRootList(itemType, x));
+    }
+
+    public static <T> List<T> readList(final Class<T> itemType, final ReadableByteChannel channel) throws IOException
+    {
+        return readList(itemType, toInputStream(channel));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> readList(final Class<T> itemType, final Path path) throws IOException
+    {
+        try (FileChannel channel = openFile(path))
+        {
+            return readFrom(new MappedJsonReader(channel), x -> JsonDeserializer.readRootList(itemType, x));
+        }
     }
 
     @SuppressWarnings("unchecked")
     public static <T> T getElementValue(final Class<T> type, final String elementName, final String jsonString)
     {
-        return (T)JsonDeserializer.getObjectValue(type, JsonDeserializer.getJsonElements(jsonString).get(elementName));
+        return (T)JsonDeserializer.readElementValue(type, elementName, jsonString);
+    }
+
+    // Stops reading as soon as the element has been read
+    @SuppressWarnings("unchecked")
+    public static <T> T readElementValue(final Class<T> type, final String elementName, final Reader reader) throws IOException
+    {
+        return readFrom(new CharJsonReader(reader), x -> (T)JsonDeserializer.readElementValue(type, elementName, x));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T readElementValue(final Class<T> type, final String elementName, final InputStream in) throws IOException
+    {
+        return readFrom(new ByteArrayJsonReader(in), x -> (T)JsonDeserializer.readElementValue(type, elementName, x));
+    }
+
+    public static <T> T readElementValue(final Class<T> type, final String elementName, final ReadableByteChannel channel) throws IOException
+    {
+        return readElementValue(type, elementName, toInputStream(channel));
     }
 
     public static String getElementRawValue(final String elementName, final String jsonString)
     {
-        return JsonDeserializer.getJsonElements(jsonString).get(elementName);
+        return JsonDeserializer.readElementRawValue(elementName, jsonString);
+    }
+
+    // Json Pointer (RFC 6901) lookups, such as "/order/items/3/price". Subtrees off the path are skipped without being parsed.
+    @SuppressWarnings("unchecked")
+    public static <T> T getPath(final Class<T> type, final String path, final String jsonString)
+    {
+        return (T)JsonDeserializer.readPathValue(type, path, jsonString);
+    }
+
+    public static String getPathRawValue(final String path, final String jsonString)
+    {
+        return JsonDeserializer.readPathRawValues(Collections.singletonList(path), jsonString).get(0);
+    }
+
+    // Finds every path in a single scan, which stops as soon as all of them have been found. Missing paths give null.
+    public static List<String> getPathRawValues(final List<String> paths, final String jsonString)
+    {
+        return JsonDeserializer.readPathRawValues(paths, jsonString);
+    }
+
+    // Validates and indexes the Json string in one pass, for repeated element lookups without parsing it again
+    public static JsonValue parse(final String jsonString)
+    {
+        return new JsonIndex(jsonString).getRoot();
+    }
+
+    // Lazily reads one top-level value after another, such as the records of a Json Lines file, each as toObj would.
+    // The file is closed together with the stream. Input failures are thrown as UncheckedIOExceptions.
+    public static <T> Stream<T> lines(final Class<T> type, final Path path) throws IOException
+    {
+        FileChannel channel = openFile(path);
+        try
+        {
+            return JsonDeserializer.readValues(type, new MappedJsonReader(channel)).onClose(() -> {
+                try
+                {
+                    channel.close();
+                }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        catch (IOException | RuntimeException e)
+        {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Readers and streams are not closed
+    public static <T> Stream<T> lines(final Class<T> type, final Reader reader)
+    {
+        return JsonDeserializer.readValues(type, new CharJsonReader(reader));
+    }
+
+    public static <T> Stream<T> lines(final Class<T> type, final InputStream in)
+    {
+        return JsonDeserializer.readValues(type, new ByteArrayJsonReader(in));
+    }
+
+    // Decoded strings and element names of up to 32 chars are deduplicated through a cache with room for the given number
+    // of strings, shared by all threads. Repeated values then share one instance, which saves memory when many decoded
+    // objects are kept. Strings the cache already holds are found without being allocated. 0 turns it off, the default.
+    // Readers that are already running keep the cache they started with.
+    public static void setStringCacheSize(final int size)
+    {
+        if (size < 0)
+            throw new JsonException("Invalid string cache size: " + size);
+        _stringCache = size == 0 ? null : new StringCache(size);
+    }
+
+    // Builds the metadata and the serialization and deserialization plans of the classes, and of every type reachable
+    // through their fields, including generic type arguments, so that the first calls for them do not pay for it
+    public static void register(final Class<?>... types)
+    {
+        TypeGraph graph = new TypeGraph();
+        for (Class<?> type : getTypes(types))
+            graph.register(type);
+    }
+
+    // Registers the classes, then encodes and decodes a synthetic instance of each, with every field set,
+    // so that the JIT compiles the paths they take before real traffic arrives
+    public static void warmUp(final Class<?>... types)
+    {
+        warmUp(TypeGraph.WarmUpRounds, types);
+    }
+
+    public static void warmUp(final int rounds, final Class<?>... types)
+    {
+        if (rounds < 0)
+            throw new JsonException("Invalid number of warm-up rounds: " + rounds);
+        register(types);
+        for (Class<?> type : types)
+            TypeGraph.warmUp(type, rounds);
+    }
+
+    private static Class<?>[] getTypes(final Class<?>[] types)
+    {
+        if (types == null || Arrays.asList(types).contains(null))
+            throw new JsonException("Invalid type: null");
+        return types;
+    }
+
+    private static <T> T readFrom(final JsonReader reader, final Function<JsonReader, T> read) throws IOException
+    {
+        try
+        {
+            return read.apply(reader);
+        }
+        catch (JsonIOException e)
+        {
+            throw (IOException)e.getCause();
+        }
+    }
+
+    private static InputStream toInputStream(final ReadableByteChannel channel)
+    {
+        return channel == null ? null : Channels.newInputStream(channel);
+    }
+
+    private static FileChannel openFile(final Path path) throws IOException
+    {
+        if (path == null)
+            throw new JsonException("Invalid Json input: null");
+        return FileChannel.open(path, StandardOpenOption.READ);
+    }
+
+    private static int getParallelism(final Executor executor)
+    {
+        return executor instanceof ForkJoinPool
+                ? ((ForkJoinPool)executor).getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+    }
+
+    // Rethrows what the task threw, rather than a CompletionException
+    private static <T> T join(final CompletableFuture<T> future)
+    {
+        try
+        {
+            return future.join();
+        }
+        catch (CompletionException e)
+        {
+            if (e.getCause() instanceof Error)
+                throw (Error)e.getCause();
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException)e.getCause() : e;
+        }
+    }
+
+    // Marks a class for the JsonCompiledProcessor, which generates a reflection-free Adapter for it at compile time.
+    // Classes without a generated Adapter are handled through reflection.
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.TYPE)
+    public @interface Compiled
+    {
+    }
+
+    // Implemented by generated adapters, named after the binary name of their class plus "_JsonAdapter"
+    public interface Adapter<T>
+    {
+        // Names of the fields that read(Input, Object, int) can set, indexed by field number
+        String[] fieldNames();
+
+        T newInstance();
+
+        void write(Output out, T obj);
+
+        void read(Input in, T obj, int field);
+    }
+
+    public interface Output
+    {
+        // Appends already formatted Json text
+        Output raw(String json);
+
+        Output value(int value);
+
+        Output value(long value);
+
+        Output value(float value);
+
+        Output value(double value);
+
+        Output value(boolean value);
+
+        Output value(Object value);
     }
 
-    private static List<Field> getFields(final Object obj)
+    // Primitive reads throw an IllegalArgumentException on null literals, which leaves the field unset
+    public interface Input
     {
-        Class objClass = obj.getClass();
-        if (!_classFields.containsKey(objClass))
-            cacheClassFields(obj);
-        return _classFields.get(objClass);
+        int readInt();
+
+        long readLong();
+
+        float readFloat();
+
+        double readDouble();
+
+        boolean readBoolean();
+
+        byte readByte();
+
+        Object read(Type type);
     }
 
-    private static void cacheClassFields(final Object obj)
+    // Captures a generic type at runtime: new Json.TypeOf<List<String>>() {}.getType()
+    public static abstract class TypeOf<T>
     {
-        Set<Field> fields = new LinkedHashSet<>();
-        Arrays.stream(obj.getClass().getFields())
-                .forEach(x -> fields.add(x));
-        Arrays.stream(obj.getClass().getDeclaredFields())
-                .filter(x -> Modifier.isPrivate(x.getModifiers()) && !Modifier.isStatic(x.getModifiers()))
-                .forEach(x -> fields.add(x));
-        List<Field> fieldsList = fields.stream().collect(Collectors.toList());
-        _classFields.put(obj.getClass(), fieldsList);
+        private final Type _type;
+
+        protected TypeOf()
+        {
+            _type = ((ParameterizedType)getClass().getGenericSuperclass()).getActualTypeArguments()[0];
+        }
+
+        public final Type getType()
+        {
+            return _type;
+        }
     }
 
-    private static class JsonException extends RuntimeException
-    {
-        public JsonException(final String message)
+    // A value within a parsed Json string. Children are only looked up, and values only converted, on access.
+    // Immutable, so it can be shared between threads.
+    public static final class JsonValue
+    {
+        private final JsonIndex _index;
+        private final int _entry;
+
+        private JsonValue(final JsonIndex index, final int entry)
+        {
+            _index = index;
+            _entry = entry;
+        }
+
+        public boolean isObject()
+        {
+            return _index.getFirstChar(_entry) == '{';
+        }
+
+        public boolean isArray()
+        {
+            return _index.getFirstChar(_entry) == '[';
+        }
+
+        public boolean isNull()
+        {
+            return JsonDeserializer.isNullLiteral(getRawValue());
+        }
+
+        // Number of elements of an object or array. Zero for anything else.
+        public int size()
+        {
+            if (!isObject() && !isArray())
+                return 0;
+            int size = 0;
+            for (int i = _index.getFirstChild(_entry); i < _index.getEnd(_entry); i = _index.getNextSibling(i, isObject()))
+                size++;
+            return size;
+        }
+
+        // Returns null when this is not an object or has no such element
+        public JsonValue get(final String elementName)
+        {
+            if (!isObject())
+                return null;
+            for (int i = _index.getFirstChild(_entry); i < _index.getEnd(_entry); i = _index.getNextSibling(i, true))
+                if (_index.nameEquals(i, elementName))
+                    return new JsonValue(_index, i + 1);
+            return null;
+        }
+
+        // Returns null when this is not an array or the index is out of range. Use getElements to visit every element.
+        public JsonValue get(final int index)
+        {
+            if (!isArray() || index < 0)
+                return null;
+            int i = _index.getFirstChild(_entry);
+            for (int skipped = 0; skipped < index && i < _index.getEnd(_entry); skipped++)
+                i = _index.getNextSibling(i, false);
+            return i < _index.getEnd(_entry) ? new JsonValue(_index, i) : null;
+        }
+
+        public List<JsonValue> getElements()
+        {
+            List<JsonValue> elements = new ArrayList<>();
+            boolean isObject = isObject();
+            if (isObject || isArray())
+                for (int i = _index.getFirstChild(_entry); i < _index.getEnd(_entry); i = _index.getNextSibling(i, isObject))
+                    elements.add(new JsonValue(_index, isObject ? i + 1 : i));
+            return elements;
+        }
+
+        public List<String> getNames()
+        {
+            List<String> names = new ArrayList<>();
+            if (isObject())
+                for (int i = _index.getFirstChild(_entry); i < _index.getEnd(_entry); i = _index.getNextSibling(i, true))
+                    names.add(_index.getName(i));
+            return names;
+        }
+
+        // Converted the same way as getElementValue
+        @SuppressWarnings("unchecked")
+        public <T> T getValue(final Class<T> type)
+        {
+            return (T)JsonDeserializer.readValue(_index.getReader(_entry), type);
+        }
+
+        public String getRawValue()
+        {
+            return _index.getText(_entry);
+        }
+
+        @Override
+        public String toString()
+        {
+            return getRawValue();
+        }
+    }
+
+    // Structural index of a Json string, built in one pass. For every value it records where its text starts and ends,
+    // and the entry that follows the value's subtree, so that siblings are found without scanning.
+    // Object elements are recorded as the entry of the name, followed by the entries of the value.
+    private static final class JsonIndex
+    {
+        private final char[] _chars;
+        private int[] _starts = new int[64];
+        private int[] _ends = new int[64];
+        private int[] _next = new int[64];
+        private int _count;
+
+        private JsonIndex(final String jsonString)
+        {
+            if (jsonString == null)
+                throw new JsonException("Invalid Json string: null");
+            _chars = jsonString.toCharArray();
+            JsonReader reader = new CharJsonReader(_chars, 0, _chars.length);
+            indexValue(reader);
+            reader.expectEnd();
+        }
+
+        private JsonValue getRoot()
+        {
+            return new JsonValue(this, 0);
+        }
+
+        private void indexValue(final JsonReader reader)
+        {
+            int next = reader.peek();
+            if (next == -1)
+                throw reader.syntaxError("Unexpected end of Json string");
+            int entry = add(reader._pos);
+            if (next == '{')
+            {
+                reader._pos++;
+                if (!reader.consume('}'))
+                {
+                    do
+                    {
+                        if (reader.peek() != '"')
+                            throw reader.syntaxError("Expected element name");
+                        int name = add(reader._pos++);
+                        reader.skipStringContent();
+                        close(name, reader._pos);
+                        reader.expect(':');
+                        indexValue(reader);
+                    }
+                    while (reader.consume(','));
+                    reader.expect('}');
+                }
+            }
+            else if (next == '[')
+            {
+                reader._pos++;
+                if (!reader.consume(']'))
+                {
+                    do
+                        indexValue(reader);
+                    while (reader.consume(','));
+                    reader.expect(']');
+                }
+            }
+            else if (next == '"')
+            {
+                reader._pos++;
+                reader.skipStringContent();
+            }
+            else
+            {
+                close(entry, reader.skipLiteral());
+                return;
+            }
+            close(entry, reader._pos);
+        }
+
+        private int add(final int start)
+        {
+            if (_count == _starts.length)
+            {
+                _starts = Arrays.copyOf(_starts, _count * 2);
+                _ends = Arrays.copyOf(_ends, _count * 2);
+                _next = Arrays.copyOf(_next, _count * 2);
+            }
+            _starts[_count] = start;
+            return _count++;
+        }
+
+        private void close(final int entry, final int end)
+        {
+            _ends[entry] = end;
+            _next[entry] = _count;
+        }
+
+        private char getFirstChar(final int entry)
+        {
+            return _starts[entry] < _ends[entry] ? _chars[_starts[entry]] : 0;
+        }
+
+        private int getFirstChild(final int entry)
+        {
+            return entry + 1;
+        }
+
+        // The entry after all of the entry's children
+        private int getEnd(final int entry)
+        {
+            return _next[entry];
+        }
+
+        // Object elements span two entries: the name and the value
+        private int getNextSibling(final int entry, final boolean isElementName)
+        {
+            return isElementName ? _next[entry + 1] : _next[entry];
+        }
+
+        // Compared as they are up to the first escape sequence, which only decoding can match
+        private boolean nameEquals(final int entry, final String name)
+        {
+            int start = _starts[entry] + 1;
+            int length = _ends[entry] - 1 - start;
+            for (int i = 0; i < length; i++)
+            {
+                if (_chars[start + i] == '\\')
+                    return getName(entry).equals(name);
+                if (i == name.length() || _chars[start + i] != name.charAt(i))
+                    return false;
+            }
+            return length == name.length();
+        }
+
+        private String getName(final int entry)
+        {
+            String name = new String(_chars, _starts[entry] + 1, _ends[entry] - _starts[entry] - 2);
+            return name.indexOf('\\') < 0 ? name : JsonReader.unescape(name);
+        }
+
+        private String getText(final int entry)
+        {
+            return new String(_chars, _starts[entry], _ends[entry] - _starts[entry]);
+        }
+
+        private JsonReader getReader(final int entry)
+        {
+            return new CharJsonReader(_chars, _starts[entry], _ends[entry]);
+        }
+    }
+
+    private static ClassMetadata getMetadata(final Class type)
+    {
+        if (JsonMetrics.IsEnabled)
+            JsonMetrics.recordLookup(JsonMetrics.Cache.Metadata);
+        if (!isShared(type.getClassLoader()))
+            return _classMetadata.get(type);
+        ClassMetadata metadata = _sharedMetadata.get(type);
+        return metadata != null ? metadata : _sharedMetadata.computeIfAbsent(type, Json::createMetadata);
+    }
+
+    private static ClassMetadata createMetadata(final Class<?> type)
+    {
+        if (JsonMetrics.IsEnabled)
+            JsonMetrics.recordMiss(JsonMetrics.Cache.Metadata);
+        return new ClassMetadata(type);
+    }
+
+    private static boolean isShared(final ClassLoader loader)
+    {
+        if (loader == null)
+            return true;
+        for (ClassLoader shared : _sharedLoaders)
+            if (loader == shared)
+                return true;
+        return false;
+    }
+
+    private static ClassLoader[] getAncestors(final ClassLoader loader)
+    {
+        List<ClassLoader> ancestors = new ArrayList<>();
+        for (ClassLoader parent = loader == null ? null : loader.getParent(); parent != null; parent = parent.getParent())
+            ancestors.add(parent);
+        return ancestors.toArray(new ClassLoader[0]);
+    }
+
+    private static List<Field> getFields(final Class type)
+    {
+        return getMetadata(type).getFields();
+    }
+
+    // Metadata is attached to the Class itself through ClassValue, so lookups are lock-free and it is released
+    // together with the class when its ClassLoader is unloaded. Classes that outlive Json are the exception, see _sharedMetadata. Each part is built lazily on first use.
+    // Threads racing on first use may each build a part, but the results are equivalent and never modified.
+    private static final class ClassMetadata
+    {
+        private final Class<?> _type;
+        private final Adapter<Object> _adapter;
+        private volatile List<Field> _fields;
+        private volatile Constructor<?> _constructor;
+        private volatile BiConsumer<JsonWriter, Object> _writer;
+        private volatile JsonDeserializer.ObjectReader _reader;
+        private volatile JsonDeserializer.ValueDecoder _decoder;
+        // Decoders of the parameterized and generic array types that JsonDeserializer.getOwner assigns to this class
+        private final Map<Type, JsonDeserializer.ValueDecoder> _genericDecoders = new ConcurrentHashMap<>();
+        // Typical output size of the class as a root value. Racing updates only lose samples.
+        private int _sizeHint = 16;
+
+        private ClassMetadata(final Class<?> type)
+        {
+            _type = type;
+            _adapter = findAdapter(type);
+        }
+
+        private int getSizeHint()
+        {
+            return _sizeHint;
+        }
+
+        // Follows larger outputs at once and decays slowly towards smaller ones
+        private void addSizeSample(final int size)
+        {
+            int hint = _sizeHint;
+            _sizeHint = Math.min(StringJsonWriter.MaxReusedCapacity, Math.max(size, hint - (hint >> 3)));
+        }
+
+        private List<Field> getFields()
+        {
+            List<Field> fields = _fields;
+            if (JsonMetrics.IsEnabled)
+                JsonMetrics.recordLookup(JsonMetrics.Cache.Fields);
+            if (fields == null)
+            {
+                if (JsonMetrics.IsEnabled)
+                    JsonMetrics.recordMiss(JsonMetrics.Cache.Fields);
+                _fields = fields = findFields(_type);
+            }
+            return fields;
+        }
+
+        private Constructor<?> getConstructor() throws NoSuchMethodException
+        {
+            Constructor<?> constructor = _constructor;
+            if (JsonMetrics.IsEnabled)
+                JsonMetrics.recordLookup(JsonMetrics.Cache.Constructors);
+            if (constructor == null)
+            {
+                if (JsonMetrics.IsEnabled)
+                    JsonMetrics.recordMiss(JsonMetrics.Cache.Constructors);
+                _constructor = constructor = ReflectionFactory.getReflectionFactory().newConstructorForSerialization(_type, Object.class.getDeclaredConstructor());
+            }
+            return constructor;
+        }
+
+        private BiConsumer<JsonWriter, Object> getWriter()
+        {
+            BiConsumer<JsonWriter, Object> writer = _writer;
+            if (JsonMetrics.IsEnabled)
+                JsonMetrics.recordLookup(JsonMetrics.Cache.Writers);
+            if (writer == null)
+            {
+                if (JsonMetrics.IsEnabled)
+                    JsonMetrics.recordMiss(JsonMetrics.Cache.Writers);
+                _writer = writer = JsonSerializer.createWriter(_type);
+            }
+            return writer;
+        }
+
+        private JsonDeserializer.ObjectReader getReader()
+        {
+            JsonDeserializer.ObjectReader reader = _reader;
+            if (JsonMetrics.IsEnabled)
+                JsonMetrics.recordLookup(JsonMetrics.Cache.Readers);
+            if (reader == null)
+            {
+                if (JsonMetrics.IsEnabled)
+                    JsonMetrics.recordMiss(JsonMetrics.Cache.Readers);
+                _reader = reader = new JsonDeserializer.ObjectReader(_type, _type);
+            }
+            return reader;
+        }
+
+        private JsonDeserializer.ValueDecoder getDecoder()
+        {
+            JsonDeserializer.ValueDecoder decoder = _decoder;
+            if (JsonMetrics.IsEnabled)
+                JsonMetrics.recordLookup(JsonMetrics.Cache.Decoders);
+            if (decoder == null)
+            {
+                if (JsonMetrics.IsEnabled)
+                    JsonMetrics.recordMiss(JsonMetrics.Cache.Decoders);
+                _decoder = decoder = JsonDeserializer.createDecoder(_type);
+            }
+            return decoder;
+        }
+
+        // The type is resolved. Not computeIfAbsent, as compiling a decoder may look up other decoders in the same map.
+        private JsonDeserializer.ValueDecoder getDecoder(final Type type)
+        {
+            JsonDeserializer.ValueDecoder decoder = _genericDecoders.get(type);
+            if (JsonMetrics.IsEnabled)
+                JsonMetrics.recordLookup(JsonMetrics.Cache.Decoders);
+            if (decoder == null)
+            {
+                if (JsonMetrics.IsEnabled)
+                    JsonMetrics.recordMiss(JsonMetrics.Cache.Decoders);
+                decoder = JsonDeserializer.createDecoder(type);
+                JsonDeserializer.ValueDecoder existing = _genericDecoders.putIfAbsent(type, decoder);
+                if (existing != null)
+                    decoder = existing;
+            }
+            return decoder;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Adapter<Object> findAdapter(final Class<?> type)
+        {
+            if (!type.isAnnotationPresent(Compiled.class))
+                return null;
+            try
+            {
+                return (Adapter<Object>)Class.forName(type.getName() + "_JsonAdapter", true, type.getClassLoader())
+                        .getDeclaredConstructor().newInstance();
+            }
+            catch (ClassNotFoundException e)
+            {
+                return null;
+            }
+            catch (InvocationTargetException e)
+            {
+                throw new JsonException("Unable to create Json adapter for: " + type, e.getCause());
+            }
+            catch (InstantiationException | NoSuchMethodException | IllegalAccessException e)
+            {
+                throw new JsonException("Unable to create Json adapter for: " + type, e);
+            }
+        }
+
+        // Fields are made accessible once here, so that concurrent reads and writes never toggle access flags
+        private static List<Field> findFields(final Class<?> type)
+        {
+            Set<Field> fields = new LinkedHashSet<>();
+            Arrays.stream(type.getFields())
+                    .forEach(x -> fields.add(x));
+            Arrays.stream(type.getDeclaredFields())
+                    .filter(x -> Modifier.isPrivate(x.getModifiers()) && !Modifier.isStatic(x.getModifiers()))
+                    .forEach(x -> fields.add(x));
+            fields.forEach(x -> x.setAccessible(true));
+            return Collections.unmodifiableList(fields.stream().collect(Collectors.toList()));
+        }
+    }
+
+    // Walks the types reachable from a class through its fields and builds their plans, which is what the first call
+    // for each of them would otherwise do, and creates synthetic instances of them for warm-up rounds
+    private static final class TypeGraph
+    {
+        // Roughly what the JIT needs before it fully compiles a method
+        private static final int WarmUpRounds = 10_000;
+        // Synthetic instances stop at this depth, and at types that are already being built, so recursive types end
+        private static final int MaxSampleDepth = 8;
+
+        private final Set<Type> _visited = new HashSet<>();
+        // Types of the synthetic instances that are being built
+        private final Set<Type> _building = new HashSet<>();
+
+        // Types are resolved first, so that the fields of each parameterization are registered with their type arguments
+        private void register(final Type type)
+        {
+            Type resolved = JsonDeserializer.resolve(type, Collections.emptyMap());
+            if (!_visited.add(resolved))
+                return;
+            Class<?> rawType = JsonDeserializer.getRawType(resolved);
+            if (rawType.isPrimitive())
+                return;
+            ClassMetadata metadata = getMetadata(rawType);
+            metadata.getWriter();
+            JsonDeserializer.ValueDecoder decoder = JsonDeserializer.getDecoder(type);
+            if (resolved instanceof ParameterizedType)
+                for (Type argument : ((ParameterizedType)resolved).getActualTypeArguments())
+                    register(argument);
+            if (rawType.isArray())
+                register(resolved instanceof GenericArrayType ? ((GenericArrayType)resolved).getGenericComponentType() : rawType.getComponentType());
+            if (!(decoder instanceof JsonDeserializer.ObjectDecoder))
+                return;
+            ((JsonDeserializer.ObjectDecoder)decoder).getPlan();
+            try
+            {
+                if (metadata._adapter == null)
+                    metadata.getConstructor();
+            }
+            catch (NoSuchMethodException e)
+            {
+                throw new JsonException("Unable to register type: " + type, e);
+            }
+            Map<TypeVariable<?>, Type> bindings = JsonDeserializer.getBindings(resolved);
+            for (Field field : metadata.getFields())
+                if (!Modifier.isStatic(field.getModifiers()))
+                    register(JsonDeserializer.resolve(field.getGenericType(), bindings));
+        }
+
+        // Conversion failures are not reported, as they come from the synthetic values rather than from the class
+        private static void warmUp(final Class<?> type, final int rounds)
+        {
+            Object sample = new TypeGraph().sample(type, 0);
+            if (sample == null)
+                return;
+            for (int i = 0; i < rounds; i++)
+            {
+                try
+                {
+                    String json = toJsonString(sample);
+                    toObj(type, json);
+                    byte[] utf8 = json.getBytes(StandardCharsets.UTF_8);
+                    toObj(type, utf8, 0, utf8.length);
+                }
+                catch (RuntimeException e)
+                {
+                    return;
+                }
+            }
+        }
+
+        private Object sample(final Type type, final int depth)
+        {
+            Class<?> rawType = JsonDeserializer.getRawType(type);
+            if (rawType == int.class || rawType == Integer.class)
+                return 1;
+            if (rawType == long.class || rawType == Long.class)
+                return 1L;
+            if (rawType == double.class || rawType == Double.class)
+                return 1.5;
+            if (rawType == float.class || rawType == Float.class)
+                return 1.5f;
+            if (rawType == byte.class || rawType == Byte.class)
+                return (byte)1;
+            if (rawType == boolean.class || rawType == Boolean.class)
+                return true;
+            if (rawType == String.class)
+                return "a";
+            if (rawType == LocalDateTime.class)
+                return LocalDateTime.of(2000, 1, 1, 0, 0);
+            if (rawType == byte[].class)
+                return new byte[] { 1 };
+            if (rawType.isEnum())
+                return rawType.getEnumConstants().length == 0 ? null : rawType.getEnumConstants()[0];
+            if (rawType == Object.class || depth >= MaxSampleDepth || !_building.add(type))
+                return null;
+            try
+            {
+                return sampleContainer(type, rawType, depth);
+            }
+            finally
+            {
+                _building.remove(type);
+            }
+        }
+
+        private Object sampleContainer(final Type type, final Class<?> rawType, final int depth)
+        {
+            if (rawType.isArray())
+            {
+                Type componentType = type instanceof GenericArrayType ? ((GenericArrayType)type).getGenericComponentType() : rawType.getComponentType();
+                Object array = Array.newInstance(rawType.getComponentType(), 1);
+                Object item = sample(componentType, depth + 1);
+                if (item != null)
+                    Array.set(array, 0, item);
+                return array;
+            }
+            if (List.class.isAssignableFrom(rawType) && rawType.isAssignableFrom(ArrayList.class))
+            {
+                List<Object> list = new ArrayList<>();
+                Object item = sample(JsonDeserializer.getTypeArgument(type, 0), depth + 1);
+                if (item != null)
+                    list.add(item);
+                return list;
+            }
+            if (Map.class.isAssignableFrom(rawType) && rawType.isAssignableFrom(LinkedHashMap.class))
+            {
+                Map<Object, Object> map = new LinkedHashMap<>();
+                Object key = sample(JsonDeserializer.getTypeArgument(type, 0), depth + 1);
+                Object value = sample(JsonDeserializer.getTypeArgument(type, 1), depth + 1);
+                if (key != null)
+                    map.put(key, value);
+                return map;
+            }
+            if (!JsonDeserializer.isObjectType(rawType))
+                return null;
+            Object obj = JsonDeserializer.tryCreateNewInstance(rawType, false);
+            if (obj == null)
+                return null;
+            Map<TypeVariable<?>, Type> bindings = JsonDeserializer.getBindings(type);
+            for (Field field : getFields(rawType))
+            {
+                if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers()))
+                    continue;
+                Object value = sample(JsonDeserializer.resolve(field.getGenericType(), bindings), depth + 1);
+                try
+                {
+                    if (value != null)
+                        field.set(obj, value);
+                }
+                catch (IllegalAccessException | IllegalArgumentException e)
+                {
+                    // Left at its default
+                }
+            }
+            return obj;
+        }
+    }
+
+    private static class JsonException extends RuntimeException
+    {
+        public JsonException(final String message)
+        {
+            super(message);
+        }
+
+        public JsonException(final String message, final Throwable ex)
+        {
+            super(message, ex);
+        }
+    }
+
+    // Carries input failures through the parser like syntax errors. Unwrapped again by the public methods.
+    private static final class JsonIOException extends JsonException
+    {
+        private JsonIOException(final IOException ex)
+        {
+            super("Unable to read Json input", ex);
+        }
+    }
+    
+    // Direct-mapped cache of canonical strings. Each slot keeps the last string stored under its hash, so the cache never
+    // grows, and racing threads at worst replace an entry or miss one. Strings are immutable, so sharing them is safe.
+    private static final class StringCache
+    {
+        static final int MaxLength = 32;
+
+        private final String[] _strings;
+        private final int _mask;
+
+        private StringCache(final int size)
+        {
+            _strings = new String[Math.max(2, Integer.highestOneBit(Math.min(size, 1 << 30) - 1) << 1)];
+            _mask = _strings.length - 1;
+        }
+
+        // Returns a cached string that might be equal to a string with the given hash
+        private String get(final int hash)
+        {
+            String value = _strings[index(hash)];
+            return value != null && value.hashCode() == hash ? value : null;
+        }
+
+        private void put(final int hash, final String value)
+        {
+            _strings[index(hash)] = value;
+        }
+
+        private String canonicalize(final String value)
+        {
+            if (value.length() > MaxLength)
+                return value;
+            int hash = value.hashCode();
+            String cached = get(hash);
+            if (JsonMetrics.IsEnabled)
+                JsonMetrics.recordLookup(JsonMetrics.Cache.Strings);
+            if (value.equals(cached))
+                return cached;
+            if (JsonMetrics.IsEnabled)
+                JsonMetrics.recordMiss(JsonMetrics.Cache.Strings);
+            put(hash, value);
+            return value;
+        }
+
+        private int index(final int hash)
+        {
+            return (hash ^ hash >>> 16) & _mask;
+        }
+    }
+
+    // Cursor over a buffer of Json text. Input is either complete up front, or streamed through a refillable buffer,
+    // in which case only the input from the mark onward is kept on refill. Memory is then bounded by the largest
+    // value read as text, not by the input size. Subclasses provide the buffer: chars, or UTF-8 bytes.
+    private static abstract class JsonReader implements Input
+    {
+        static final int BufferSize = 8192;
+
+        int _end;
+        int _pos;
+        int _mark = -1;
+        long _offset;
+        int _tokenStart;
+        int _tokenEnd;
+        // The current name, decoded, when it cannot be matched in the buffer as it is
+        String _token;
+        // Set by skipStringContent
+        boolean _isEscaped;
+        private final StringCache _cache = _stringCache;
+        // Set by readInteger
+        long _integer;
+        // Set by scanNumber. The literal is the significand, an unsigned integer of up to 19 significant digits, times 10^_exponent.
+        // _isExact is false when non-zero digits beyond those had to be dropped.
+        long _significand;
+        int _exponent;
+        boolean _isNegative;
+        boolean _isInteger;
+        boolean _isExact;
+
+        // Returns the char at the index, or the unsigned byte. Every Json delimiter is ASCII, so both scan the same way.
+        abstract int charAt(int index);
+
+        // Loads more input. Returns false at the end of input.
+        abstract boolean fill();
+
+        abstract String text(int start, int end);
+
+        // Returns the hash of the current token as String.hashCode would compute it, given the hash of its chars or bytes
+        abstract int tokenHash(int hash, boolean isAscii);
+
+        // Compares the current token in the buffer
+        abstract boolean rangeEquals(char[] name);
+
+        // Whether the rest of the input is already in the buffer, so that it can be scanned ahead without a refill
+        boolean isBuffered()
+        {
+            return false;
+        }
+
+        // Chars, or bytes, read so far
+        long position()
+        {
+            return _offset + _pos;
+        }
+
+        // Everything from the mark, or else from the current position, has to survive a refill
+        int getKeep()
+        {
+            return _mark >= 0 ? _mark : _pos;
+        }
+
+        void shift(final int keep)
+        {
+            _end -= keep;
+            _pos -= keep;
+            _mark -= _mark >= 0 ? keep : 0;
+            _tokenStart -= keep;
+            _tokenEnd -= keep;
+            _offset += keep;
+        }
+
+        private int peek()
+        {
+            while ((_pos < _end || fill()) && charAt(_pos) <= ' ')
+                _pos++;
+            return _pos < _end ? charAt(_pos) : -1;
+        }
+
+        private boolean consume(final char ch)
+        {
+            if (peek() != ch)
+                return false;
+            _pos++;
+            return true;
+        }
+
+        private void expect(final char ch)
+        {
+            if (!consume(ch))
+                throw syntaxError("Expected '" + ch + "'");
+        }
+
+        // Counts the elements of the array whose '[' was just consumed, by its separators, without moving the cursor.
+        // Returns -1 when the input is streamed, or when the array is not closed. Malformed elements are left for the read to report.
+        private int countElements()
+        {
+            if (!isBuffered())
+                return -1;
+            int separators = 0;
+            int depth = 0;
+            boolean isEmpty = true;
+            for (int i = _pos; i < _end; i++)
+            {
+                int ch = charAt(i);
+                if (ch <= ' ')
+                    continue;
+                if ((ch == ']' || ch == '}') && depth-- == 0)
+                    return isEmpty ? 0 : separators + 1;
+                isEmpty = false;
+                if (ch == '"')
+                {
+                    for (i++; i < _end && charAt(i) != '"'; i++)
+                        i += charAt(i) == '\\' ? 1 : 0;
+                }
+                else if (ch == '[' || ch == '{')
+                    depth++;
+                else if (ch == ',' && depth == 0)
+                    separators++;
+            }
+            return -1;
+        }
+
+        // Only whitespace may follow the root value of a whole document
+        private void expectEnd()
+        {
+            if (peek() != -1)
+                throw syntaxError("Unexpected content after Json value");
+        }
+
+        private String readKey()
+        {
+            if (peek() != '"')
+                throw syntaxError("Expected element name");
+            String key = readString();
+            expect(':');
+            return key;
+        }
+
+        // Reads an element name and the following ':', without allocating for ASCII names. Returns the hash of the name,
+        // computed like String.hashCode, and leaves the name as the current token for tokenEquals.
+        private int readKeyHash()
+        {
+            if (peek() != '"')
+                throw syntaxError("Expected element name");
+            _mark = ++_pos;
+            _token = null;
+            int hash = 0;
+            int bits = 0;
+            boolean isEscaped = false;
+            while (_pos < _end || fill())
+            {
+                int ch = charAt(_pos++);
+                if (ch == '"')
+                {
+                    _tokenStart = _mark;
+                    _tokenEnd = _pos - 1;
+                    expect(':');
+                    _mark = -1;
+                    if (!isEscaped)
+                        return tokenHash(hash, bits < 0x80);
+                    _token = unescape(text(_tokenStart, _tokenEnd));
+                    return _token.hashCode();
+                }
+                hash = 31 * hash + ch;
+                bits |= ch;
+                if (ch == '\\' && (_pos < _end || fill()))
+                {
+                    isEscaped = true;
+                    _pos++;
+                }
+            }
+            throw syntaxError("Unterminated string");
+        }
+
+        private boolean tokenEquals(final String value)
+        {
+            if (_token != null)
+                return _token.equals(value);
+            if (_tokenEnd - _tokenStart != value.length())
+                return false;
+            for (int i = 0; i < value.length(); i++)
+                if (charAt(_tokenStart + i) != value.charAt(i))
+                    return false;
+            return true;
+        }
+
+        boolean tokenEquals(final char[] name)
+        {
+            if (_token == null)
+                return rangeEquals(name);
+            if (_token.length() != name.length)
+                return false;
+            for (int i = 0; i < name.length; i++)
+                if (_token.charAt(i) != name[i])
+                    return false;
+            return true;
+        }
+
+        // Reads a value that is meant for a scalar type as text. Returns null for null literals and objects.
+        private String readScalar()
+        {
+            int next = peek();
+            if (next == '"')
+                return readString();
+            if (next == '[')
+                return readRaw();
+            if (next == '{')
+            {
+                skipValue();
+                return null;
+            }
+            String literal = readLiteral();
+            return literal.equals("null") ? null : literal;
+        }
+
+        @Override
+        public int readInt()
+        {
+            return readInteger(Integer.MIN_VALUE, Integer.MAX_VALUE) ? (int)_integer : Integer.parseInt(readRequiredScalar());
+        }
+
+        @Override
+        public long readLong()
+        {
+            return readInteger(Long.MIN_VALUE, Long.MAX_VALUE) ? _integer : Long.parseLong(readRequiredScalar());
+        }
+
+        @Override
+        public float readFloat()
+        {
+            int end = scanNumber();
+            if (end < 0)
+                return Float.parseFloat(readRequiredScalar());
+            float value = _isExact ? JsonNumbers.toFloat(_isNegative, _significand, _exponent) : Float.NaN;
+            if (value != value)
+                value = Float.parseFloat(text(_mark, end));
+            _mark = -1;
+            return value;
+        }
+
+        @Override
+        public double readDouble()
+        {
+            int end = scanNumber();
+            if (end < 0)
+                return Double.parseDouble(readRequiredScalar());
+            double value = _isExact ? JsonNumbers.toDouble(_isNegative, _significand, _exponent) : Double.NaN;
+            if (value != value)
+                value = Double.parseDouble(text(_mark, end));
+            _mark = -1;
+            return value;
+        }
+
+        @Override
+        public boolean readBoolean()
+        {
+            return Boolean.parseBoolean(readRequiredScalar());
+        }
+
+        @Override
+        public byte readByte()
+        {
+            return readInteger(Byte.MIN_VALUE, Byte.MAX_VALUE) ? (byte)_integer : Byte.parseByte(readRequiredScalar());
+        }
+
+        // Parses a plain integer literal straight from the input into _integer, without allocating. Anything else,
+        // including values out of range or too long to add up safely, is left in place for the text parsers to convert or reject.
+        private boolean readInteger(final long min, final long max)
+        {
+            if (scanNumber() < 0)
+                return false;
+            long value = _isNegative ? -_significand : _significand;
+            if (!_isInteger || _exponent != 0 || _significand < 0 || _significand >= 1_000_000_000_000_000_000L || value < min || value > max)
+            {
+                _pos = _mark;
+                _mark = -1;
+                return false;
+            }
+            _mark = -1;
+            _integer = value;
+            return true;
+        }
+
+        // Scans a number literal into _significand, _exponent and the flags, and returns its end. The mark is left at its start,
+        // for callers to clear or to fall back on its text. Returns -1, with the position unchanged, for anything that does not
+        // follow the Json number grammar.
+        private int scanNumber()
+        {
+            int next = peek();
+            if (next != '-' && (next < '0' || next > '9'))
+                return -1;
+            _mark = _pos;
+            if (next == '-')
+                _pos++;
+            long significand = 0;
+            int digits = 0;
+            int exponent = 0;
+            boolean isExact = true;
+            int count = 0;
+            int ch;
+            for (; (ch = current()) >= '0' && ch <= '9'; _pos++, count++)
+            {
+                if (digits < 19 && (significand != 0 || ch != '0'))
+                {
+                    significand = significand * 10 + (ch - '0');
+                    digits++;
+                }
+                else if (digits == 19)
+                {
+                    exponent++;
+                    isExact &= ch == '0';
+                }
+            }
+            boolean isInteger = true;
+            if (count > 0 && ch == '.')
+            {
+                isInteger = false;
+                _pos++;
+                for (count = 0; (ch = current()) >= '0' && ch <= '9'; _pos++, count++)
+                {
+                    if (digits < 19 && (significand != 0 || ch != '0'))
+                    {
+                        significand = significand * 10 + (ch - '0');
+                        digits++;
+                        exponent--;
+                    }
+                    else if (digits < 19)
+                        exponent--;
+                    else
+                        isExact &= ch == '0';
+                }
+            }
+            if (count > 0 && (ch == 'e' || ch == 'E'))
+            {
+                isInteger = false;
+                _pos++;
+                boolean isNegativeExponent = current() == '-';
+                if (isNegativeExponent || current() == '+')
+                    _pos++;
+                int value = 0;
+                for (count = 0; (ch = current()) >= '0' && ch <= '9'; _pos++, count++)
+                    value = Math.min(value * 10 + (ch - '0'), 100_000);
+                exponent += isNegativeExponent ? -value : value;
+            }
+            int length = _pos - _mark;
+            int end = count > 0 ? skipLiteral() : -1;
+            if (end - _mark != length)
+            {
+                _pos = _mark;
+                _mark = -1;
+                return -1;
+            }
+            _significand = significand;
+            _exponent = exponent;
+            _isNegative = next == '-';
+            _isInteger = isInteger;
+            _isExact = isExact;
+            return end;
+        }
+
+        // The char at the position, or -1 at the end of input
+        private int current()
+        {
+            return _pos < _end || fill() ? charAt(_pos) : -1;
+        }
+
+        @Override
+        public Object read(final Type type)
+        {
+            return JsonDeserializer.readValue(this, type);
+        }
+
+        private String readRequiredScalar()
+        {
+            String value = readScalar();
+            if (value == null)
+                throw new IllegalArgumentException("Null literal for primitive value.");
+            return value;
+        }
+
+        // Only strings with escape sequences are decoded a second time
+        private String readString()
+        {
+            _mark = ++_pos;
+            int end = skipStringContent();
+            String value = _isEscaped ? unescape(text(_mark, end)) : _cache != null ? readCached(_mark, end) : text(_mark, end);
+            _mark = -1;
+            return _isEscaped && _cache != null ? _cache.canonicalize(value) : value;
+        }
+
+        // Hashes the text in the buffer to find it in the cache, and only allocates it when it is not there yet
+        private String readCached(final int start, final int end)
+        {
+            if (end - start > StringCache.MaxLength)
+                return text(start, end);
+            int hash = 0;
+            int bits = 0;
+            for (int i = start; i < end; i++)
+            {
+                int ch = charAt(i);
+                hash = 31 * hash + ch;
+                bits |= ch;
+            }
+            _tokenStart = start;
+            _tokenEnd = end;
+            _token = null;
+            hash = tokenHash(hash, bits < 0x80);
+            String cached = _cache.get(hash);
+            if (JsonMetrics.IsEnabled)
+                JsonMetrics.recordLookup(JsonMetrics.Cache.Strings);
+            if (cached != null && tokenEquals(cached))
+                return cached;
+            if (JsonMetrics.IsEnabled)
+                JsonMetrics.recordMiss(JsonMetrics.Cache.Strings);
+            String value = _token != null ? _token : text(start, end);
+            _cache.put(hash, value);
+            return value;
+        }
+
+        // Decodes the escape sequences in the content of a Json string
+        static String unescape(final String text)
+        {
+            StringBuilder sb = new StringBuilder(text.length());
+            int start = 0;
+            for (int i = text.indexOf('\\'); i >= 0; i = text.indexOf('\\', start))
+            {
+                sb.append(text, start, i);
+                char ch = i + 1 < text.length() ? text.charAt(i + 1) : 0;
+                start = i + 2;
+                switch (ch)
+                {
+                    case '"':
+                    case '\\':
+                    case '/':
+                        sb.append(ch);
+                        break;
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'u':
+                        int code = 0;
+                        for (int digit; start < i + 6; start++)
+                        {
+                            if (start == text.length() || (digit = Character.digit(text.charAt(start), 16)) < 0)
+                                throw new JsonException("Invalid unicode escape sequence: " + text.substring(i, start));
+                            code = code << 4 | digit;
+                        }
+                        sb.append((char)code);
+                        break;
+                    default:
+                        throw new JsonException("Invalid escape sequence: " + text.substring(i, Math.min(i + 2, text.length())));
+                }
+            }
+            return sb.append(text, start, text.length()).toString();
+        }
+
+        // Unquoted values run up to the next delimiter. Anything that is not a valid Json literal is left to the parsers.
+        private String readLiteral()
+        {
+            if (peek() == -1)
+                throw syntaxError("Unexpected end of Json string");
+            _mark = _pos;
+            int end = skipLiteral();
+            return readMarked(end);
+        }
+
+        private String readRaw()
+        {
+            peek();
+            _mark = _pos;
+            int end = skipValue();
+            return readMarked(end);
+        }
+
+        private String readMarked(final int end)
+        {
+            String value = text(_mark, end);
+            _mark = -1;
+            return value;
+        }
+
+        private int skipValue()
+        {
+            int next = peek();
+            if (next == '"')
+            {
+                _pos++;
+                skipStringContent();
+                return _pos;
+            }
+            if (next == '{' || next == '[')
+                return skipContainer();
+            return skipLiteral();
+        }
+
+        private int skipStringContent()
+        {
+            _isEscaped = false;
+            while (_pos < _end || fill())
+            {
+                int ch = charAt(_pos++);
+                if (ch == '"')
+                    return _pos - 1;
+                if (ch == '\\' && (_pos < _end || fill()))
+                {
+                    _isEscaped = true;
+                    _pos++;
+                }
+            }
+            throw syntaxError("Unterminated string");
+        }
+
+        private int skipContainer()
+        {
+            int depth = 0;
+            while (_pos < _end || fill())
+            {
+                int ch = charAt(_pos++);
+                if (ch == '"')
+                    skipStringContent();
+                else if (ch == '{' || ch == '[')
+                    depth++;
+                else if ((ch == '}' || ch == ']') && --depth == 0)
+                    return _pos;
+            }
+            throw syntaxError("Unterminated object or array");
+        }
+
+        // Returns the end of the literal without trailing whitespace. Counted back from the position, which stays valid across refills.
+        // Literals also end at line breaks, which separate the values of Json Lines.
+        private int skipLiteral()
+        {
+            int trailing = 0;
+            while (_pos < _end || fill())
+            {
+                int ch = charAt(_pos);
+                if (ch == ',' || ch == '}' || ch == ']' || ch == '\n' || ch == '\r')
+                    break;
+                trailing = ch > ' ' ? 0 : trailing + 1;
+                _pos++;
+            }
+            return _pos - trailing;
+        }
+
+        private JsonException syntaxError(final String message)
+        {
+            return new JsonException(message + " at position " + position() + ".");
+        }
+    }
+
+    private static final class CharJsonReader extends JsonReader
+    {
+        private Reader _source;
+        private char[] _chars;
+
+        private CharJsonReader(final String jsonString)
+        {
+            if (jsonString == null)
+                throw new JsonException("Invalid Json string: null");
+            _chars = jsonString.toCharArray();
+            _end = _chars.length;
+        }
+
+        // Reads a range of chars that are shared with other readers. Positions stay relative to the start of the array.
+        private CharJsonReader(final char[] chars, final int start, final int end)
+        {
+            _chars = chars;
+            _pos = start;
+            _end = end;
+        }
+
+        private CharJsonReader(final Reader source)
+        {
+            if (source == null)
+                throw new JsonException("Invalid Json input: null");
+            _source = source;
+            _chars = new char[BufferSize];
+        }
+
+        @Override
+        int charAt(final int index)
+        {
+            return _chars[index];
+        }
+
+        @Override
+        boolean isBuffered()
+        {
+            return _source == null;
+        }
+
+        @Override
+        boolean fill()
+        {
+            if (_source == null)
+                return false;
+            int keep = getKeep();
+            if (keep > 0)
+            {
+                System.arraycopy(_chars, keep, _chars, 0, _end - keep);
+                shift(keep);
+            }
+            if (_end == _chars.length)
+                _chars = Arrays.copyOf(_chars, _chars.length * 2);
+            try
+            {
+                int count = _source.read(_chars, _end, _chars.length - _end);
+                if (count < 0)
+                {
+                    _source = null;
+                    return false;
+                }
+                _end += count;
+                return true;
+            }
+            catch (IOException e)
+            {
+                throw new JsonIOException(e);
+            }
+        }
+
+        @Override
+        String text(final int start, final int end)
+        {
+            return new String(_chars, start, end - start);
+        }
+
+        @Override
+        int tokenHash(final int hash, final boolean isAscii)
+        {
+            return hash;
+        }
+
+        @Override
+        boolean rangeEquals(final char[] name)
+        {
+            if (_tokenEnd - _tokenStart != name.length)
+                return false;
+            for (int i = 0; i < name.length; i++)
+                if (_chars[_tokenStart + i] != name[i])
+                    return false;
+            return true;
+        }
+    }
+
+    // Scans UTF-8 bytes directly. Multi-byte sequences only ever contain bytes above 0x7F, so they can never be
+    // mistaken for delimiters, and text is only decoded for values that are actually read.
+    private static abstract class Utf8JsonReader extends JsonReader
+    {
+        // Hashes of ASCII names are the same over bytes as over chars. Other names are decoded first.
+        @Override
+        int tokenHash(final int hash, final boolean isAscii)
+        {
+            _token = isAscii ? null : text(_tokenStart, _tokenEnd);
+            return isAscii ? hash : _token.hashCode();
+        }
+
+        @Override
+        boolean rangeEquals(final char[] name)
+        {
+            if (_tokenEnd - _tokenStart != name.length)
+                return false;
+            for (int i = 0; i < name.length; i++)
+                if (charAt(_tokenStart + i) != name[i])
+                    return false;
+            return true;
+        }
+
+        // ASCII text is copied straight into the String, skipping the UTF-8 decoder
+        @SuppressWarnings("deprecation")
+        static String decode(final byte[] bytes, final int start, final int end)
+        {
+            for (int i = start; i < end; i++)
+                if (bytes[i] < 0)
+                    return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+            return new String(bytes, 0, start, end - start);
+        }
+    }
+
+    private static final class ByteArrayJsonReader extends Utf8JsonReader
+    {
+        private InputStream _source;
+        private byte[] _bytes;
+
+        private ByteArrayJsonReader(final byte[] bytes, final int offset, final int length)
+        {
+            if (bytes == null)
+                throw new JsonException("Invalid Json input: null");
+            if (offset < 0 || length < 0 || length > bytes.length - offset)
+                throw new IndexOutOfBoundsException("Offset: " + offset + ", length: " + length + ", size: " + bytes.length);
+            _bytes = bytes;
+            _pos = offset;
+            _end = offset + length;
+            _offset = -offset;
+        }
+
+        private ByteArrayJsonReader(final InputStream source)
+        {
+            if (source == null)
+                throw new JsonException("Invalid Json input: null");
+            _source = source;
+            _bytes = new byte[BufferSize];
+        }
+
+        @Override
+        int charAt(final int index)
+        {
+            return _bytes[index] & 0xFF;
+        }
+
+        @Override
+        boolean isBuffered()
+        {
+            return _source == null;
+        }
+
+        @Override
+        boolean fill()
+        {
+            if (_source == null)
+                return false;
+            int keep = getKeep();
+            if (keep > 0)
+            {
+                System.arraycopy(_bytes, keep, _bytes, 0, _end - keep);
+                shift(keep);
+            }
+            if (_end == _bytes.length)
+                _bytes = Arrays.copyOf(_bytes, _bytes.length * 2);
+            try
+            {
+                int count = _source.read(_bytes, _end, _bytes.length - _end);
+                if (count < 0)
+                {
+                    _source = null;
+                    return false;
+                }
+                _end += count;
+                return true;
+            }
+            catch (IOException e)
+            {
+                throw new JsonIOException(e);
+            }
+        }
+
+        @Override
+        String text(final int start, final int end)
+        {
+            return decode(_bytes, start, end);
+        }
+    }
+
+    // Maps the file one window at a time, so files of any size are parsed in place, without being read onto the heap.
+    // The window moves forward as the cursor advances, keeping the input from the mark onward like a buffer refill.
+    private static final class MappedJsonReader extends Utf8JsonReader
+    {
+        private static final int WindowSize = 16 << 20;
+
+        private final FileChannel _channel;
+        private final long _size;
+        private MappedByteBuffer _window;
+
+        private MappedJsonReader(final FileChannel channel) throws IOException
+        {
+            _channel = channel;
+            _size = channel.size();
+        }
+
+        @Override
+        int charAt(final int index)
+        {
+            return _window.get(index) & 0xFF;
+        }
+
+        @Override
+        boolean fill()
+        {
+            if (_offset + _end >= _size)
+                return false;
+            int keep = getKeep();
+            long start = _offset + keep;
+            // Grows past the window size for a single value that does not fit, up to what one mapping can hold
+            long length = Math.min(Math.min(_size - start, Math.max(WindowSize, (_end - keep) * 2L)), Integer.MAX_VALUE);
+            if (length <= _end - keep)
+                throw new JsonException("Json value too large at position " + start + ".");
+            try
+            {
+                _window = _channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            }
+            catch (IOException e)
+            {
+                throw new JsonIOException(e);
+            }
+            shift(keep);
+            _end = (int)length;
+            return true;
+        }
+
+        @Override
+        String text(final int start, final int end)
+        {
+            byte[] bytes = new byte[end - start];
+            ByteBuffer window = _window.duplicate();
+            window.position(start);
+            window.get(bytes);
+            return decode(bytes, 0, bytes.length);
+        }
+    }
+
+    // Number conversions straight between digits and doubles, without going through a String.
+    // Parsing takes Clinger's fast path when the significand and the power of ten are both exact, and the Eisel-Lemire algorithm
+    // otherwise. The rare inputs that neither can settle, such as halfway cases, are left to Double.parseDouble by the callers.
+    // Formatting finds the shortest decimal that rounds back to the same value with Schubfach, and lays it out like Double.toString.
+    private static final class JsonNumbers
+    {
+        private static final int MinExponent = -348;
+        private static final int MaxExponent = 347;
+        private static final long Mask63 = 0x7FFFFFFFFFFFFFFFL;
+
+        private static final double[] DoublePowers = {
+                1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+                1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+        private static final float[] FloatPowers = { 1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f };
+
+        // 10^e scaled to 128 bits and rounded down, for Eisel-Lemire
+        private static final long[] PowerHigh = new long[MaxExponent - MinExponent + 1];
+        private static final long[] PowerLow = new long[MaxExponent - MinExponent + 1];
+        // 10^e scaled to 126 bits, rounded down plus one, and split in 63 bit halves, for Schubfach
+        private static final long[] ScaledHigh = new long[MaxExponent - MinExponent + 1];
+        private static final long[] ScaledLow = new long[MaxExponent - MinExponent + 1];
+
+        static
+        {
+            for (int e = MinExponent; e <= MaxExponent; e++)
+            {
+                BigInteger power = BigInteger.TEN.pow(Math.abs(e));
+                int bits = power.bitLength();
+                BigInteger scaled = e < 0
+                        ? BigInteger.ONE.shiftLeft(bits + 127).divide(power)
+                        : bits > 128 ? power.shiftRight(bits - 128) : power.shiftLeft(128 - bits);
+                PowerHigh[e - MinExponent] = scaled.shiftRight(64).longValue();
+                PowerLow[e - MinExponent] = scaled.longValue();
+                BigInteger g = scaled.shiftRight(2).add(BigInteger.ONE);
+                ScaledHigh[e - MinExponent] = g.shiftRight(63).longValue();
+                ScaledLow[e - MinExponent] = g.longValue() & Mask63;
+            }
+        }
+
+        // Returns the double nearest to the significand, an unsigned integer, times 10^exponent, or NaN if it is not settled here
+        static double toDouble(final boolean isNegative, final long significand, final int exponent)
+        {
+            if (significand == 0)
+                return isNegative ? -0.0 : 0.0;
+            double value;
+            if (significand >= 0 && significand <= 1L << 53 && exponent >= -22 && exponent <= 22)
+                value = exponent < 0 ? significand / DoublePowers[-exponent] : significand * DoublePowers[exponent];
+            else
+            {
+                long bits = eiselLemire(significand, exponent, 52, 1023);
+                if (bits < 0)
+                    return Double.NaN;
+                value = Double.longBitsToDouble(bits);
+            }
+            return isNegative ? -value : value;
+        }
+
+        static float toFloat(final boolean isNegative, final long significand, final int exponent)
+        {
+            if (significand == 0)
+                return isNegative ? -0.0f : 0.0f;
+            float value;
+            if (significand >= 0 && significand <= 1L << 24 && exponent >= -10 && exponent <= 10)
+                value = exponent < 0 ? significand / FloatPowers[-exponent] : significand * FloatPowers[exponent];
+            else
+            {
+                long bits = eiselLemire(significand, exponent, 23, 127);
+                if (bits < 0)
+                    return Float.NaN;
+                value = Float.intBitsToFloat((int)bits);
+            }
+            return isNegative ? -value : value;
+        }
+
+        // Returns the bits of the nearest positive value with the given mantissa width and exponent bias, or -1 if the
+        // 128-bit approximation cannot tell, which includes subnormal and infinite results
+        private static long eiselLemire(long significand, final int exponent, final int mantissaBits, final int bias)
+        {
+            if (exponent < MinExponent || exponent > MaxExponent)
+                return -1;
+            int shift = 61 - mantissaBits;
+            long mask = (1L << shift) - 1;
+            int zeros = Long.numberOfLeadingZeros(significand);
+            significand <<= zeros;
+            long exponent2 = (217706 * exponent >> 16) + 64 + bias - zeros;
+
+            int index = exponent - MinExponent;
+            long high = unsignedMultiplyHigh(significand, PowerHigh[index]);
+            long low = significand * PowerHigh[index];
+            if ((high & mask) == mask && Long.compareUnsigned(low + significand, significand) < 0)
+            {
+                long nextHigh = unsignedMultiplyHigh(significand, PowerLow[index]);
+                long nextLow = significand * PowerLow[index];
+                long mergedLow = low + nextHigh;
+                long mergedHigh = Long.compareUnsigned(mergedLow, low) < 0 ? high + 1 : high;
+                if ((mergedHigh & mask) == mask && mergedLow == -1 && Long.compareUnsigned(nextLow + significand, significand) < 0)
+                    return -1;
+                high = mergedHigh;
+                low = mergedLow;
+            }
+
+            long top = high >>> 63;
+            long mantissa = high >>> (top + shift);
+            exponent2 -= 1 ^ top;
+            if (low == 0 && (high & mask) == 0 && (mantissa & 3) == 1)
+                return -1;
+            mantissa += mantissa & 1;
+            mantissa >>>= 1;
+            if (mantissa >>> (mantissaBits + 1) != 0)
+            {
+                mantissa >>>= 1;
+                exponent2++;
+            }
+            if (exponent2 <= 0 || exponent2 >= 2 * bias + 1)
+                return -1;
+            return exponent2 << mantissaBits | mantissa & ((1L << mantissaBits) - 1);
+        }
+
+        // Writes the value as Double.toString would in Java 19 and later, which is the shortest form. Returns the end.
+        static int writeDouble(final double value, final char[] out, final int pos)
+        {
+            long bits = Double.doubleToRawLongBits(value);
+            long fraction = bits & (1L << 52) - 1;
+            int biasedExponent = (int)(bits >>> 52) & 0x7FF;
+            if (biasedExponent == 0x7FF)
+                return writeText(fraction != 0 ? "NaN" : bits > 0 ? "Infinity" : "-Infinity", out, pos);
+            int start = pos;
+            if (bits < 0)
+                out[start++] = '-';
+            if (biasedExponent == 0)
+                return fraction == 0 ? writeText("0.0", out, start)
+                        : fraction < 3 ? writeShortest(10 * fraction, -1074, -1, false, out, start)
+                        : writeShortest(fraction, -1074, 0, false, out, start);
+            int q = biasedExponent - 1075;
+            long c = 1L << 52 | fraction;
+            if (q < 0 && q > -53 && (c >> -q) << -q == c)
+                return writeDecimal(c >> -q, 0, out, start);
+            return writeShortest(c, q, 0, fraction == 0 && biasedExponent > 1, out, start);
+        }
+
+        static int writeFloat(final float value, final char[] out, final int pos)
+        {
+            int bits = Float.floatToRawIntBits(value);
+            int fraction = bits & (1 << 23) - 1;
+            int biasedExponent = bits >>> 23 & 0xFF;
+            if (biasedExponent == 0xFF)
+                return writeText(fraction != 0 ? "NaN" : bits > 0 ? "Infinity" : "-Infinity", out, pos);
+            int start = pos;
+            if (bits < 0)
+                out[start++] = '-';
+            if (biasedExponent == 0)
+                return fraction == 0 ? writeText("0.0", out, start)
+                        : fraction < 8 ? writeShortest(10 * fraction, -149, -1, false, out, start)
+                        : writeShortest(fraction, -149, 0, false, out, start);
+            int q = biasedExponent - 150;
+            int c = 1 << 23 | fraction;
+            if (q < 0 && q > -24 && (c >> -q) << -q == c)
+                return writeDecimal(c >> -q, 0, out, start);
+            return writeShortest(c, q, 0, fraction == 0 && biasedExponent > 1, out, start);
+        }
+
+        // Schubfach: among the decimals that round back to c 2^q, picks one with the fewest digits, and of those the closest.
+        // The interval is narrower below powers of two, whose predecessor is closer. dk compensates for subnormal values
+        // that are scaled up by ten to keep enough digits.
+        private static int writeShortest(final long c, final int q, final int dk, final boolean isIrregular, final char[] out, final int pos)
+        {
+            int odd = (int)c & 1;
+            long cb = c << 2;
+            long cbr = cb + 2;
+            long cbl = isIrregular ? cb - 1 : cb - 2;
+            int k = isIrregular ? floorLog10ThreeQuartersPow2(q) : floorLog10Pow2(q);
+            int h = q + floorLog2Pow10(-k) + 2;
+            long g1 = ScaledHigh[-k - MinExponent];
+            long g0 = ScaledLow[-k - MinExponent];
+            long vb = roundToOdd(g1, g0, cb << h);
+            long vbl = roundToOdd(g1, g0, cbl << h);
+            long vbr = roundToOdd(g1, g0, cbr << h);
+
+            long s = vb >> 2;
+            if (s >= 100)
+            {
+                // s' = floor(s / 10), and its successor, one digit shorter
+                long sp10 = 10 * multiplyHigh(s, 115_292_150_460_684_698L << 4);
+                long tp10 = sp10 + 10;
+                boolean upin = vbl + odd <= sp10 << 2;
+                boolean wpin = (tp10 << 2) + odd <= vbr;
+                if (upin != wpin)
+                    return writeDecimal(upin ? sp10 : tp10, k, out, pos);
+            }
+            long t = s + 1;
+            boolean uin = vbl + odd <= s << 2;
+            boolean win = (t << 2) + odd <= vbr;
+            if (uin != win)
+                return writeDecimal(uin ? s : t, k + dk, out, pos);
+            long cmp = vb - (s + t << 1);
+            return writeDecimal(cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t, k + dk, out, pos);
+        }
+
+        // Rounds cp g 2^-127 to odd, where g = g1 2^63 + g0
+        private static long roundToOdd(final long g1, final long g0, final long cp)
+        {
+            long x1 = multiplyHigh(g0, cp);
+            long y0 = g1 * cp;
+            long y1 = multiplyHigh(g1, cp);
+            long z = (y0 >>> 1) + x1;
+            long vbp = y1 + (z >>> 63);
+            return vbp | (z & Mask63) + Mask63 >>> 63;
+        }
+
+        private static int floorLog10Pow2(final int e)
+        {
+            return (int)(e * 661_971_961_083L >> 41);
+        }
+
+        private static int floorLog10ThreeQuartersPow2(final int e)
+        {
+            return (int)(e * 661_971_961_083L - 274_743_187_321L >> 41);
+        }
+
+        private static int floorLog2Pow10(final int e)
+        {
+            return (int)(e * 913_124_641_741L >> 38);
+        }
+
+        // Lays out f 10^e like Double.toString: plain from 10^-3 up to 10^7, computerized scientific notation otherwise,
+        // and always with at least one digit after the point
+        private static int writeDecimal(long f, int e, final char[] out, final int pos)
+        {
+            while (f % 10 == 0)
+            {
+                f /= 10;
+                e++;
+            }
+            int length = 1;
+            for (long x = f; x >= 10; x /= 10)
+                length++;
+            int point = length + e;
+            if (point > 0 && point <= 7)
+            {
+                if (length <= point)
+                {
+                    int end = writeDigits(f, length, out, pos);
+                    while (end < pos + point)
+                        out[end++] = '0';
+                    return writeText(".0", out, end);
+                }
+                int end = writeDigits(f, length, out, pos);
+                System.arraycopy(out, pos + point, out, pos + point + 1, length - point);
+                out[pos + point] = '.';
+                return end + 1;
+            }
+            if (point > -3 && point <= 0)
+            {
+                int end = writeText("0.", out, pos);
+                while (point++ < 0)
+                    out[end++] = '0';
+                return writeDigits(f, length, out, end);
+            }
+            int end = writeDigits(f, length, out, pos + 1);
+            out[pos] = out[pos + 1];
+            out[pos + 1] = '.';
+            if (length == 1)
+                out[end++] = '0';
+            out[end++] = 'E';
+            return writeLong(point - 1, out, end);
+        }
+
+        static int writeLong(final long value, final char[] out, final int pos)
+        {
+            if (value == Long.MIN_VALUE)
+                return writeText("-9223372036854775808", out, pos);
+            int start = pos;
+            if (value < 0)
+                out[start++] = '-';
+            long digits = Math.abs(value);
+            int length = 1;
+            for (long x = digits; x >= 10; x /= 10)
+                length++;
+            return writeDigits(digits, length, out, start);
+        }
+
+        private static int writeDigits(long digits, final int length, final char[] out, final int pos)
+        {
+            for (int i = pos + length - 1; i >= pos; i--)
+            {
+                out[i] = (char)('0' + digits % 10);
+                digits /= 10;
+            }
+            return pos + length;
+        }
+
+        private static int writeText(final String text, final char[] out, final int pos)
+        {
+            text.getChars(0, text.length(), out, pos);
+            return pos + text.length();
+        }
+
+        // Math.multiplyHigh, which needs Java 9
+        private static long multiplyHigh(final long x, final long y)
+        {
+            long x1 = x >> 32;
+            long x2 = x & 0xFFFFFFFFL;
+            long y1 = y >> 32;
+            long y2 = y & 0xFFFFFFFFL;
+            long z2 = x2 * y2;
+            long t = x1 * y2 + (z2 >>> 32);
+            long z1 = (t & 0xFFFFFFFFL) + x2 * y1;
+            return x1 * y1 + (t >> 32) + (z1 >> 32);
+        }
+
+        private static long unsignedMultiplyHigh(final long x, final long y)
+        {
+            return multiplyHigh(x, y) + (x >> 63 & y) + (y >> 63 & x);
+        }
+    }
+
+    private static class JsonDeserializer
+    {
+        // Only populated during class initialization and read-only afterwards
+        private static final Map<Class, Function<String, Object>> _parsers = new HashMap<>();
+        private static final Map<Class, ArrayElementReader> _arrayReaders = new HashMap<>();
+        // Parse unquoted numbers straight from the input instead of through their text
+        private static final Map<Class, Function<JsonReader, Object>> _numberReaders = new HashMap<>();
+        // Root arrays with fewer elements than this are read on the calling thread, like the serializer's small lists
+        private static final int ParallelThreshold = 4096;
+
+        static
+        {
+            _parsers.put(byte.class, x -> Byte.parseByte(x));
+            _parsers.put(Byte.class, x -> Byte.parseByte(x));
+            _parsers.put(boolean.class, x -> Boolean.parseBoolean(x));
+            _parsers.put(Boolean.class, x -> Boolean.parseBoolean(x));
+            _parsers.put(int.class, x -> Integer.parseInt(x));
+            _parsers.put(Integer.class, x -> Integer.parseInt(x));
+            _parsers.put(long.class, x -> Long.parseLong(x));
+            _parsers.put(Long.class, x -> Long.parseLong(x));
+            _parsers.put(float.class, x -> Float.parseFloat(x));
+            _parsers.put(Float.class, x -> Float.parseFloat(x));
+            _parsers.put(double.class, x -> Double.parseDouble(x));
+            _parsers.put(Double.class, x -> Double.parseDouble(x));
+            _parsers.put(LocalDateTime.class, x -> LocalDateTime.parse(x));
+            _parsers.put(String.class, x -> x);
+            _parsers.put(Object.class, x -> x);
+
+            _numberReaders.put(byte.class, x -> x.readByte());
+            _numberReaders.put(Byte.class, x -> x.readByte());
+            _numberReaders.put(int.class, x -> x.readInt());
+            _numberReaders.put(Integer.class, x -> x.readInt());
+            _numberReaders.put(long.class, x -> x.readLong());
+            _numberReaders.put(Long.class, x -> x.readLong());
+            _numberReaders.put(float.class, x -> x.readFloat());
+            _numberReaders.put(Float.class, x -> x.readFloat());
+            _numberReaders.put(double.class, x -> x.readDouble());
+            _numberReaders.put(Double.class, x -> x.readDouble());
+
+            _arrayReaders.put(int.class, (reader, array, i) -> ((int[])array)[i] = reader.readInt());
+            _arrayReaders.put(long.class, (reader, array, i) -> ((long[])array)[i] = reader.readLong());
+            _arrayReaders.put(double.class, (reader, array, i) -> ((double[])array)[i] = reader.readDouble());
+            _arrayReaders.put(float.class, (reader, array, i) -> ((float[])array)[i] = reader.readFloat());
+            _arrayReaders.put(boolean.class, (reader, array, i) -> ((boolean[])array)[i] = reader.readBoolean());
+            _arrayReaders.put(byte.class, (reader, array, i) -> ((byte[])array)[i] = reader.readByte());
+        }
+
+        private static Object readRootValue(final Type type, final String jsonString)
+        {
+            return readRootValue(type, new CharJsonReader(jsonString));
+        }
+
+        private static Object readRootValue(final Type type, final JsonReader reader)
+        {
+            Object value = readNextRootValue(type, reader);
+            reader.expectEnd();
+            return value;
+        }
+
+        // Unlike nested objects, a root object that matches none of the elements is an error.
+        // Leaves the reader after the value, where lines reads the next one.
+        private static Object readNextRootValue(final Type type, final JsonReader reader)
+        {
+            long start = JsonMetrics.IsEnabled ? System.nanoTime() : 0;
+            Object event = JsonEvents.IsAvailable ? JsonEvents.beginDecode() : null;
+            long position = reader.position();
+            ValueDecoder decoder = getDecoder(type);
+            Object value = reader.peek() == '{' && decoder instanceof ObjectDecoder
+                    ? ((ObjectDecoder)decoder).readRoot(reader)
+                    : decoder.read(reader);
+            if (JsonMetrics.IsEnabled)
+                JsonMetrics.recordDecode(getRawType(type), reader.position() - position, System.nanoTime() - start);
+            if (event != null)
+                JsonEvents.commitDecode(event, getRawType(type), reader.position() - position, value);
+            return value;
+        }
+
+        private static <T> Stream<T> readValues(final Class<T> type, final JsonReader reader)
+        {
+            return StreamSupport.stream(new ValueSpliterator<>(type, reader), false);
+        }
+
+        // Reads the next value on each advance, so nothing is read ahead of the stream's consumer
+        private static final class ValueSpliterator<T> extends Spliterators.AbstractSpliterator<T>
+        {
+            private final Class<T> _type;
+            private final JsonReader _reader;
+
+            private ValueSpliterator(final Class<T> type, final JsonReader reader)
+            {
+                super(Long.MAX_VALUE, Spliterator.ORDERED);
+                _type = type;
+                _reader = reader;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public boolean tryAdvance(final Consumer<? super T> action)
+            {
+                try
+                {
+                    if (_reader.peek() == -1)
+                        return false;
+                    action.accept((T)readNextRootValue(_type, _reader));
+                    return true;
+                }
+                catch (JsonIOException e)
+                {
+                    throw new UncheckedIOException((IOException)e.getCause());
+                }
+            }
+        }
+
+        private static List readRootList(final Class itemType, final String jsonString)
+        {
+            return readRootList(itemType, new CharJsonReader(jsonString));
+        }
+
+        private static List readRootList(final Class itemType, final JsonReader reader)
+        {
+            long start = JsonMetrics.IsEnabled ? System.nanoTime() : 0;
+            Object event = JsonEvents.IsAvailable ? JsonEvents.beginDecode() : null;
+            long position = reader.position();
+            List items = readList(reader, getDecoder(itemType));
+            reader.expectEnd();
+            if (JsonMetrics.IsEnabled)
+                JsonMetrics.recordDecode(itemType, reader.position() - position, System.nanoTime() - start);
+            if (event != null)
+                JsonEvents.commitDecode(event, itemType, reader.position() - position, items);
+            return items;
+        }
+
+        // Finds where each element starts in one pass that skips over the values without decoding them, then decodes
+        // chunks of elements on the executor. Failures are reported as readList would: the first syntax error,
+        // or else the first conversion failure.
+        @SuppressWarnings("unchecked")
+        private static List readRootListParallel(final Class itemType, final String jsonString, final Executor executor, final int parallelism)
+        {
+            if (jsonString == null)
+                throw new JsonException("Invalid Json string: null");
+            // Each element takes at least two chars, counting its separator, so shorter strings hold too few to scan for
+            if (jsonString.length() < ParallelThreshold * 2)
+                return readRootList(itemType, jsonString);
+            long start = JsonMetrics.IsEnabled ? System.nanoTime() : 0;
+            Object event = JsonEvents.IsAvailable ? JsonEvents.beginDecode() : null;
+            char[] chars = jsonString.toCharArray();
+            JsonReader reader = new CharJsonReader(chars, 0, chars.length);
+            int[] starts = new int[16];
+            int count = 0;
+            int end = 0;
+            reader.expect('[');
+            if (!reader.consume(']'))
+            {
+                do
+                {
+                    reader.peek();
+                    if (count == starts.length)
+                        starts = Arrays.copyOf(starts, count * 2);
+                    starts[count++] = reader._pos;
+                    end = reader.skipValue();
+                }
+                while (reader.consume(','));
+                reader.expect(']');
+            }
+            reader.expectEnd();
+            if (count < ParallelThreshold)
+                return readRootList(itemType, new CharJsonReader(chars, 0, chars.length));
+
+            ValueDecoder decoder = getDecoder(itemType);
+            int chunkCount = Math.min(count, parallelism * 4);
+            List<CompletableFuture<ListChunk>> chunks = new ArrayList<>(chunkCount);
+            for (int i = 0; i < chunkCount; i++)
+            {
+                int first = (int)((long)count * i / chunkCount);
+                int last = (int)((long)count * (i + 1) / chunkCount);
+                int chunkStart = starts[first];
+                int chunkEnd = last == count ? end : starts[last];
+                chunks.add(CompletableFuture.supplyAsync(
+                        () -> readListChunk(new CharJsonReader(chars, chunkStart, chunkEnd), last - first, decoder), executor));
+            }
+
+            List items = new ArrayList<>(count);
+            RuntimeException failure = null;
+            for (CompletableFuture<ListChunk> future : chunks)
+            {
+                ListChunk chunk = join(future);
+                if (chunk._failure instanceof JsonException)
+                    throw chunk._failure;
+                failure = failure == null ? chunk._failure : failure;
+                items.addAll(chunk._items);
+            }
+            if (failure != null)
+                throw failure;
+            if (JsonMetrics.IsEnabled)
+                JsonMetrics.recordDecode(itemType, chars.length, System.nanoTime() - start);
+            if (event != null)
+                JsonEvents.commitDecode(event, itemType, chars.length, items);
+            return items;
+        }
+
+        private static final class ListChunk
+        {
+            private final List<Object> _items;
+            private RuntimeException _failure;
+
+            private ListChunk(final int count)
+            {
+                _items = new ArrayList<>(count);
+            }
+        }
+
+        // Stops at a syntax error, but carries on past conversion failures like readList
+        private static ListChunk readListChunk(final JsonReader reader, final int count, final ValueDecoder decoder)
+        {
+            ListChunk chunk = new ListChunk(count);
+            for (int i = 0; i < count; i++)
+            {
+                try
+                {
+                    chunk._items.add(decoder.read(reader));
+                }
+                catch (JsonException e)
+                {
+                    chunk._failure = e;
+                    return chunk;
+                }
+                catch (RuntimeException e)
+                {
+                    chunk._failure = chunk._failure == null ? e : chunk._failure;
+                }
+                reader.consume(',');
+            }
+            return chunk;
+        }
+
+        private static Object readElementValue(final Class type, final String elementName, final String jsonString)
+        {
+            return readElementValue(type, elementName, new CharJsonReader(jsonString));
+        }
+
+        private static Object readElementValue(final Class type, final String elementName, final JsonReader reader)
+        {
+            return seekElement(reader, elementName) ? readValue(reader, type) : null;
+        }
+
+        private static String readElementRawValue(final String elementName, final String jsonString)
+        {
+            JsonReader reader = new CharJsonReader(jsonString);
+            return seekElement(reader, elementName) ? reader.readRaw() : null;
+        }
+
+        private static Object readPathValue(final Class type, final String path, final String jsonString)
+        {
+            CharJsonReader reader = new CharJsonReader(jsonString);
+            PathScanner scanner = new PathScanner(Collections.singletonList(path));
+            scanner.scan(reader);
+            return scanner._starts[0] < 0 ? null : readValue(new CharJsonReader(reader._chars, scanner._starts[0], scanner._ends[0]), type);
+        }
+
+        private static List<String> readPathRawValues(final List<String> paths, final String jsonString)
+        {
+            CharJsonReader reader = new CharJsonReader(jsonString);
+            PathScanner scanner = new PathScanner(paths);
+            scanner.scan(reader);
+            List<String> values = new ArrayList<>(paths.size());
+            for (int i = 0; i < paths.size(); i++)
+                values.add(scanner._starts[i] < 0 ? null : reader.text(scanner._starts[i], scanner._ends[i]));
+            return values;
+        }
+
+        // Matches Json Pointers level by level in a single scan, and records where the value of each path starts and ends.
+        // Values that no path leads into are skipped by bracket matching only. The paths matched at each depth are kept
+        // in a preallocated row, so scanning never allocates. Stops as soon as every path has been found.
+        private static final class PathScanner
+        {
+            private final char[][][] _names;
+            private final int[][] _indexes;
+            private final int[][] _matches;
+            private final int[] _starts;
+            private final int[] _ends;
+            private int _remaining;
+
+            private PathScanner(final List<String> paths)
+            {
+                _names = new char[paths.size()][][];
+                _indexes = new int[paths.size()][];
+                int depth = 0;
+                for (int i = 0; i < paths.size(); i++)
+                {
+                    String[] tokens = parsePointer(paths.get(i));
+                    _names[i] = new char[tokens.length][];
+                    _indexes[i] = new int[tokens.length];
+                    for (int j = 0; j < tokens.length; j++)
+                    {
+                        _names[i][j] = tokens[j].toCharArray();
+                        _indexes[i][j] = parseArrayIndex(tokens[j]);
+                    }
+                    depth = Math.max(depth, tokens.length);
+                }
+                _matches = new int[depth + 1][paths.size()];
+                _starts = new int[paths.size()];
+                _ends = new int[paths.size()];
+                Arrays.fill(_starts, -1);
+                _remaining = paths.size();
+            }
+
+            private void scan(final JsonReader reader)
+            {
+                for (int i = 0; i < _names.length; i++)
+                    _matches[0][i] = i;
+                if (_remaining > 0)
+                    scanValue(reader, 0, _names.length);
+            }
+
+            // The paths that reached this value are the first count entries of the depth's row
+            private void scanValue(final JsonReader reader, final int depth, final int count)
+            {
+                // Paths leading further are moved to the front, those ending at this value stay behind them
+                int[] matches = _matches[depth];
+                int deeper = 0;
+                for (int i = 0; i < count; i++)
+                {
+                    if (_names[matches[i]].length > depth)
+                    {
+                        int path = matches[i];
+                        matches[i] = matches[deeper];
+                        matches[deeper++] = path;
+                    }
+                }
+
+                int next = reader.peek();
+                int start = reader._pos;
+                int end;
+                if (deeper > 0 && next == '{')
+                {
+                    scanObject(reader, depth, deeper);
+                    end = reader._pos;
+                }
+                else if (deeper > 0 && next == '[')
+                {
+                    scanArray(reader, depth, deeper);
+                    end = reader._pos;
+                }
+                else
+                    end = reader.skipValue();
+
+                for (int i = deeper; i < count; i++)
+                {
+                    _starts[matches[i]] = start;
+                    _ends[matches[i]] = end;
+                }
+                _remaining -= count - deeper;
+            }
+
+            private void scanObject(final JsonReader reader, final int depth, final int count)
+            {
+                reader.expect('{');
+                if (reader.consume('}'))
+                    return;
+                do
+                {
+                    reader.readKeyHash();
+                    int matched = 0;
+                    for (int i = 0; i < count; i++)
+                        if (reader.tokenEquals(_names[_matches[depth][i]][depth]))
+                            _matches[depth + 1][matched++] = _matches[depth][i];
+                    if (matched == 0)
+                        reader.skipValue();
+                    else
+                        scanValue(reader, depth + 1, matched);
+                    if (_remaining == 0)
+                        return;
+                }
+                while (reader.consume(','));
+                reader.expect('}');
+            }
+
+            private void scanArray(final JsonReader reader, final int depth, final int count)
+            {
+                reader.expect('[');
+                if (reader.consume(']'))
+                    return;
+                int index = 0;
+                do
+                {
+                    int matched = 0;
+                    for (int i = 0; i < count; i++)
+                        if (_indexes[_matches[depth][i]][depth] == index)
+                            _matches[depth + 1][matched++] = _matches[depth][i];
+                    if (matched == 0)
+                        reader.skipValue();
+                    else
+                        scanValue(reader, depth + 1, matched);
+                    if (_remaining == 0)
+                        return;
+                    index++;
+                }
+                while (reader.consume(','));
+                reader.expect(']');
+            }
+
+            // "" is the whole document. Reference tokens follow each '/', with "~1" standing for '/' and "~0" for '~'.
+            private static String[] parsePointer(final String pointer)
+            {
+                if (pointer == null || !pointer.isEmpty() && pointer.charAt(0) != '/')
+                    throw new JsonException("Invalid Json pointer: " + pointer);
+                if (pointer.isEmpty())
+                    return new String[0];
+                String[] tokens = pointer.substring(1).split("/", -1);
+                for (int i = 0; i < tokens.length; i++)
+                    tokens[i] = tokens[i].replace("~1", "/").replace("~0", "~");
+                return tokens;
+            }
+
+            // Array indexes are "0" or digits without a leading zero. Anything else, such as "-", never matches an element.
+            private static int parseArrayIndex(final String token)
+            {
+                if (token.isEmpty() || token.length() > 9 || token.length() > 1 && token.charAt(0) == '0')
+                    return -1;
+                for (int i = 0; i < token.length(); i++)
+                    if (token.charAt(i) < '0' || token.charAt(i) > '9')
+                        return -1;
+                return Integer.parseInt(token);
+            }
+        }
+
+        private static boolean seekElement(final JsonReader reader, final String elementName)
+        {
+            reader.expect('{');
+            if (reader.consume('}'))
+                return false;
+            do
+            {
+                if (reader.readKey().equals(elementName))
+                    return true;
+                reader.skipValue();
+            }
+            while (reader.consume(','));
+            reader.expect('}');
+            return false;
+        }
+
+        private static Object readValue(final JsonReader reader, final Type type)
+        {
+            return getDecoder(type).read(reader);
+        }
+
+        // Reads the values of one type. Each type is compiled into a decoder once, and cached in the metadata of a class,
+        // so that reading a value only dispatches on its first token: which kind of value the type is,
+        // and the decoders of its type arguments, are settled when the decoder is created.
+        // Value conversion errors are only thrown once the failing value has been fully consumed,
+        // so callers can skip the value and carry on reading. Syntax errors are always JsonExceptions.
+        @FunctionalInterface
+        private interface ValueDecoder
+        {
+            Object read(JsonReader reader);
+        }
+
+        private static ValueDecoder getDecoder(final Type type)
+        {
+            if (type instanceof Class)
+                return getMetadata((Class<?>)type).getDecoder();
+            Type resolved = resolve(type, Collections.emptyMap());
+            if (resolved instanceof Class)
+                return getMetadata((Class<?>)resolved).getDecoder();
+            return getMetadata(getOwner(resolved, Object.class)).getDecoder(resolved);
+        }
+
+        // The decoder of a generic type holds every class the type names, so it is cached with the class whose loader
+        // is furthest from the bootstrap loader. Its metadata already keeps the loaders of the others alive, as they are
+        // its loader's ancestors. Caching List<Order> with List instead would keep Order's loader alive for good.
+        private static Class<?> getOwner(final Type type, final Class<?> owner)
+        {
+            if (type instanceof Class)
+                return isDescendant(((Class<?>)type).getClassLoader(), owner.getClassLoader()) ? (Class<?>)type : owner;
+            if (type instanceof GenericArrayType)
+                return getOwner(((GenericArrayType)type).getGenericComponentType(), owner);
+            if (!(type instanceof ParameterizedType))
+                return owner;
+            ParameterizedType parameterized = (ParameterizedType)type;
+            Class<?> result = getOwner(parameterized.getRawType(), owner);
+            if (parameterized.getOwnerType() != null)
+                result = getOwner(parameterized.getOwnerType(), result);
+            for (Type argument : parameterized.getActualTypeArguments())
+                result = getOwner(argument, result);
+            return result;
+        }
+
+        private static boolean isDescendant(final ClassLoader loader, final ClassLoader ancestor)
+        {
+            if (loader == ancestor)
+                return false;
+            for (ClassLoader parent = loader; parent != null; parent = parent.getParent())
+                if (parent.getParent() == ancestor)
+                    return true;
+            return false;
+        }
+
+        // The type is resolved, so its type arguments contain no type variables or wildcards.
+        // Decoders of type arguments are looked up here, but object decoders only build their plans on first use,
+        // so the decoders of recursive types are created without recursing.
+        private static ValueDecoder createDecoder(final Type type)
+        {
+            Class rawType = getRawType(type);
+            Function<JsonReader, Object> numberReader = _numberReaders.get(rawType);
+            if (rawType.isArray())
+            {
+                Class itemType = rawType.getComponentType();
+                ArrayElementReader elementReader = _arrayReaders.get(itemType);
+                ValueDecoder itemDecoder = elementReader != null ? null : getDecoder(type instanceof GenericArrayType
+                        ? ((GenericArrayType)type).getGenericComponentType()
+                        : itemType);
+                return reader -> reader.peek() == '['
+                        ? readArray(reader, itemType, elementReader, itemDecoder)
+                        : readScalar(reader, rawType, numberReader);
+            }
+            if (Map.class.isAssignableFrom(rawType))
+            {
+                Class keyType = getRawType(getTypeArgument(type, 0));
+                ValueDecoder valueDecoder = getDecoder(getTypeArgument(type, 1));
+                return reader -> {
+                    int next = reader.peek();
+                    return next == '{' || next == '['
+                            ? readMap(reader, keyType, valueDecoder)
+                            : readScalar(reader, rawType, numberReader);
+                };
+            }
+            if (List.class.isAssignableFrom(rawType))
+            {
+                ValueDecoder itemDecoder = getDecoder(getTypeArgument(type, 0));
+                return reader -> reader.peek() == '['
+                        ? readList(reader, itemDecoder)
+                        : readScalar(reader, rawType, numberReader);
+            }
+            if (isObjectType(rawType))
+                return new ObjectDecoder(rawType, type);
+            return reader -> readScalar(reader, rawType, numberReader);
+        }
+
+        // Any value other than the list, map or array that the decoder's type is read from
+        private static Object readScalar(final JsonReader reader, final Class type, final Function<JsonReader, Object> numberReader)
+        {
+            int next = reader.peek();
+            if (next == '{')
+                return readObject(reader, type, getMetadata(type).getReader(), false);
+            if (next == '[')
+                return toScalar(type, reader.readRaw());
+            if (next == '"')
+            {
+                String value = reader.readString();
+                return type.equals(byte[].class) ? getBase64Bytes(value) : toScalar(type, value);
+            }
+            if (numberReader != null && next != 'n')
+                return numberReader.apply(reader);
+            String literal = reader.readLiteral();
+            return isNullLiteral(literal) ? null : toScalar(type, literal);
+        }
+
+        // Objects of one class, or of one parameterization of a generic class, whose plan then reads each field
+        // as its type argument. A class shares the plan held in its metadata.
+        private static final class ObjectDecoder implements ValueDecoder
+        {
+            private final Class _type;
+            private final Type _genericType;
+            private final ClassMetadata _metadata;
+            private volatile ObjectReader _plan;
+
+            private ObjectDecoder(final Class type, final Type genericType)
+            {
+                _type = type;
+                _genericType = genericType;
+                _metadata = getMetadata(type);
+            }
+
+            @Override
+            public Object read(final JsonReader reader)
+            {
+                return reader.peek() == '{'
+                        ? readObject(reader, _type, getPlan(), false)
+                        : readScalar(reader, _type, null);
+            }
+
+            private Object readRoot(final JsonReader reader)
+            {
+                return readObject(reader, _type, getPlan(), true);
+            }
+
+            private ObjectReader getPlan()
+            {
+                if (_genericType instanceof Class)
+                    return _metadata.getReader();
+                ObjectReader plan = _plan;
+                if (plan == null)
+                    _plan = plan = new ObjectReader(_type, _genericType);
+                return plan;
+            }
+        }
+
+        private static Object toScalar(final Class type, final String value)
+        {
+            if (type.isEnum())
+                return Enum.valueOf(type, value);
+            Function<String, Object> parser = _parsers.get(type);
+            return parser == null ? null : parser.apply(value);
+        }
+
+        private static <T> T readObject(final JsonReader reader, final Class<T> type, final ObjectReader plan, final boolean isRoot)
+        {
+            T obj = plan._isObjectType ? tryCreateNewInstance(type, isRoot) : null;
+            if (obj == null)
+            {
+                reader.skipValue();
+                if (isRoot)
+                    throw new JsonException("No Json string elements match object type: " + type);
+                return null;
+            }
+
+            int elementCount = 0;
+            int matchCount = 0;
+            reader.expect('{');
+            if (!reader.consume('}'))
+            {
+                do
+                {
+                    FieldReader field = plan.find(reader, reader.readKeyHash());
+                    elementCount++;
+                    if (field == null)
+                    {
+                        reader.skipValue();
+                        continue;
+                    }
+                    matchCount++;
+                    field.read(reader, obj);
+                }
+                while (reader.consume(','));
+                reader.expect('}');
+            }
+
+            if (elementCount == 0 && isRoot)
+                throw new JsonException("Json string contains no elements.");
+            if (matchCount == 0 && isRoot)
+                throw new JsonException("No Json string elements match object type: " + type);
+            return matchCount == 0 ? null : obj;
+        }
+
+        // Deserialization plan for one class, or for one parameterization of a generic class, whose fields are then read
+        // with the type variables of the class and of its superclasses bound. Built once, immutable, and shared between threads.
+        // Element names are dispatched through an open-addressing hash table, using the hash the reader computes
+        // while scanning the name, so matching a name never allocates and costs the same however wide the class is.
+        private static final class ObjectReader
+        {
+            private final boolean _isObjectType;
+            private final FieldReader[] _table;
+            private final int _mask;
+
+            private ObjectReader(final Class<?> type, final Type genericType)
+            {
+                _isObjectType = isObjectType(type);
+                Adapter<Object> adapter = getMetadata(type)._adapter;
+                if (adapter != null)
+                {
+                    String[] names = adapter.fieldNames();
+                    _table = createTable(names.length);
+                    _mask = _table.length - 1;
+                    for (int i = 0; i < names.length; i++)
+                    {
+                        int field = i;
+                        add(new FieldReader(names[i], (reader, obj) -> adapter.read(reader, obj, field)));
+                    }
+                    return;
+                }
+
+                List<Field> fields = _isObjectType ? getFields(type) : Collections.emptyList();
+                Map<TypeVariable<?>, Type> bindings = fields.isEmpty() ? Collections.emptyMap() : getBindings(genericType);
+                _table = createTable(fields.size());
+                _mask = _table.length - 1;
+                for (Field field : fields)
+                    if (!(Modifier.isStatic(field.getModifiers()) && Modifier.isFinal(field.getModifiers())))
+                        add(new FieldReader(field.getName(), createFieldSetter(field, resolve(field.getGenericType(), bindings))));
+            }
+
+            private static FieldReader[] createTable(final int fieldCount)
+            {
+                return new FieldReader[Integer.highestOneBit(Math.max(fieldCount, 1) * 4 - 1)];
+            }
+
+            private void add(final FieldReader field)
+            {
+                int i = spread(field._hash) & _mask;
+                for (; _table[i] != null; i = (i + 1) & _mask)
+                    if (Arrays.equals(_table[i]._name, field._name))
+                        return;
+                _table[i] = field;
+            }
+
+            private FieldReader find(final JsonReader reader, final int hash)
+            {
+                for (int i = spread(hash) & _mask; ; i = (i + 1) & _mask)
+                {
+                    FieldReader field = _table[i];
+                    if (field == null || field._hash == hash && reader.tokenEquals(field._name))
+                        return field;
+                }
+            }
+
+            private static int spread(final int hash)
+            {
+                return hash ^ (hash >>> 16);
+            }
+        }
+
+        private static final class FieldReader
+        {
+            private final char[] _name;
+            private final int _hash;
+            private final FieldSetter _setter;
+
+            private FieldReader(final String name, final FieldSetter setter)
+            {
+                _name = name.toCharArray();
+                _hash = name.hashCode();
+                _setter = setter;
+            }
+
+            // Value conversion errors leave the field unset. The reader is already past the failing value.
+            private void read(final JsonReader reader, final Object obj)
+            {
+                try
+                {
+                    _setter.read(reader, obj);
+                }
+                catch (JsonException | Error e)
+                {
+                    throw e;
+                }
+                catch (RuntimeException e)
+                {
+                    return;
+                }
+                catch (Throwable e)
+                {
+                    throw new JsonException("Unable to set field value: '" + new String(_name) + "'", e);
+                }
+            }
+        }
+
+        @FunctionalInterface
+        private interface FieldSetter
+        {
+            void read(JsonReader reader, Object obj) throws Throwable;
+        }
+
+        // Primitive fields are parsed and written without boxing. A null literal fails to convert and leaves a primitive field unset.
+        // Setters are invoked from statement lambdas so that invokeExact is linked with a void return type.
+        private static FieldSetter createFieldSetter(final Field field, final Type genericType)
+        {
+            Class<?> type = field.getType();
+            if (type == int.class)
+            {
+                MethodHandle setter = createSetter(field, int.class);
+                return (reader, obj) -> {
+                    setter.invokeExact(obj, reader.readInt());
+                };
+            }
+            if (type == long.class)
+            {
+                MethodHandle setter = createSetter(field, long.class);
+                return (reader, obj) -> {
+                    setter.invokeExact(obj, reader.readLong());
+                };
+            }
+            if (type == double.class)
+            {
+                MethodHandle setter = createSetter(field, double.class);
+                return (reader, obj) -> {
+                    setter.invokeExact(obj, reader.readDouble());
+                };
+            }
+            if (type == float.class)
+            {
+                MethodHandle setter = createSetter(field, float.class);
+                return (reader, obj) -> {
+                    setter.invokeExact(obj, reader.readFloat());
+                };
+            }
+            if (type == boolean.class)
+            {
+                MethodHandle setter = createSetter(field, boolean.class);
+                return (reader, obj) -> {
+                    setter.invokeExact(obj, reader.readBoolean());
+                };
+            }
+            if (type == byte.class)
+            {
+                MethodHandle setter = createSetter(field, byte.class);
+                return (reader, obj) -> {
+                    setter.invokeExact(obj, reader.readByte());
+                };
+            }
+
+            MethodHandle setter = createSetter(field, Object.class);
+            ValueDecoder decoder = getDecoder(genericType);
+            return (reader, obj) -> {
+                Object value = decoder.read(reader);
+                if (value != null || !type.isPrimitive())
+                    setter.invokeExact(obj, value);
+            };
+        }
+
+        private static MethodHandle createSetter(final Field field, final Class<?> valueType)
+        {
+            try
+            {
+                MethodHandle setter = MethodHandles.lookup().unreflectSetter(field);
+                if (Modifier.isStatic(field.getModifiers()))
+                    setter = MethodHandles.dropArguments(setter, 0, Object.class);
+                return setter.asType(MethodType.methodType(void.class, Object.class, valueType));
+            }
+            catch (IllegalAccessException e)
+            {
+                throw new JsonException("Unable to set field value: '" + field.getName() + "'", e);
+            }
+        }
+
+        private static Map readMap(final JsonReader reader, final Class keyType, final ValueDecoder valueDecoder)
+        {
+            Map map = new HashMap<>();
+            if (reader.peek() == '{')
+                return readMapEntries(reader, map, keyType, valueDecoder);
+
+            RuntimeException failure = null;
+            reader.expect('[');
+            if (!reader.consume(']'))
+            {
+                do
+                {
+                    try
+                    {
+                        readMapEntries(reader, map, keyType, valueDecoder);
+                    }
+                    catch (JsonException e)
+                    {
+                        throw e;
+                    }
+                    catch (RuntimeException e)
+                    {
+                        failure = failure == null ? e : failure;
+                    }
+                }
+                while (reader.consume(','));
+                reader.expect(']');
+            }
+            if (failure != null)
+                throw failure;
+            return map;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Map readMapEntries(final JsonReader reader, final Map map, final Class keyType, final ValueDecoder valueDecoder)
+        {
+            RuntimeException failure = null;
+            reader.expect('{');
+            if (!reader.consume('}'))
+            {
+                do
+                {
+                    String key = reader.readKey();
+                    try
+                    {
+                        map.put(toScalar(keyType, key), valueDecoder.read(reader));
+                    }
+                    catch (JsonException e)
+                    {
+                        throw e;
+                    }
+                    catch (RuntimeException e)
+                    {
+                        failure = failure == null ? e : failure;
+                    }
+                }
+                while (reader.consume(','));
+                reader.expect('}');
+            }
+            if (failure != null)
+                throw failure;
+            return map;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static List readList(final JsonReader reader, final ValueDecoder itemDecoder)
+        {
+            List items = new ArrayList<>();
+            RuntimeException failure = null;
+            reader.expect('[');
+            if (!reader.consume(']'))
+            {
+                do
+                {
+                    try
+                    {
+                        items.add(itemDecoder.read(reader));
+                    }
+                    catch (JsonException e)
+                    {
+                        throw e;
+                    }
+                    catch (RuntimeException e)
+                    {
+                        failure = failure == null ? e : failure;
+                    }
+                }
+                while (reader.consume(','));
+                reader.expect(']');
+            }
+            if (failure != null)
+                throw failure;
+            return items;
+        }
+
+        private static Type getTypeArgument(final Type genericType, final int index)
+        {
+            return genericType instanceof ParameterizedType
+                    ? ((ParameterizedType)genericType).getActualTypeArguments()[index]
+                    : Object.class;
+        }
+
+        private static Class getRawType(final Type type)
+        {
+            if (type instanceof Class)
+                return (Class)type;
+            if (type instanceof ParameterizedType)
+                return (Class)((ParameterizedType)type).getRawType();
+            if (type instanceof GenericArrayType)
+                return Array.newInstance(getRawType(((GenericArrayType)type).getGenericComponentType()), 0).getClass();
+            if (type instanceof WildcardType || type instanceof TypeVariable)
+                return getRawType(resolve(type, Collections.emptyMap()));
+            return Object.class;
+        }
+
+        // Replaces type variables with their bindings, and wildcards and unbound type variables with their bounds,
+        // down through type arguments and array components. Lower bounds win, so "? super T" is read as T.
+        private static Type resolve(final Type type, final Map<TypeVariable<?>, Type> bindings)
+        {
+            if (type instanceof ParameterizedType)
+            {
+                ParameterizedType parameterized = (ParameterizedType)type;
+                Type[] arguments = parameterized.getActualTypeArguments();
+                boolean isResolved = true;
+                for (int i = 0; i < arguments.length; i++)
+                {
+                    Type argument = resolve(arguments[i], bindings);
+                    isResolved &= argument == arguments[i];
+                    arguments[i] = argument;
+                }
+                return isResolved
+                        ? type
+                        : new ResolvedParameterizedType((Class<?>)parameterized.getRawType(), arguments, parameterized.getOwnerType());
+            }
+            if (type instanceof GenericArrayType)
+            {
+                Type componentType = ((GenericArrayType)type).getGenericComponentType();
+                Type resolved = resolve(componentType, bindings);
+                if (resolved instanceof Class)
+                    return Array.newInstance((Class<?>)resolved, 0).getClass();
+                return resolved == componentType ? type : new ResolvedArrayType(resolved);
+            }
+            if (type instanceof WildcardType)
+            {
+                Type[] lowerBounds = ((WildcardType)type).getLowerBounds();
+                return resolve(lowerBounds.length > 0 ? lowerBounds[0] : ((WildcardType)type).getUpperBounds()[0], bindings);
+            }
+            if (type instanceof TypeVariable)
+            {
+                Type binding = bindings.get(type);
+                return binding != null ? binding : getRawType(((TypeVariable<?>)type).getBounds()[0]);
+            }
+            return type;
+        }
+
+        // The type variables of a class and of its superclasses, bound to the type arguments the type and each
+        // superclass declaration give them, such as T to String for class Names extends ArrayValue<String>
+        private static Map<TypeVariable<?>, Type> getBindings(final Type type)
+        {
+            Map<TypeVariable<?>, Type> bindings = new HashMap<>();
+            Class<?> rawType = getRawType(type);
+            if (type instanceof ParameterizedType)
+                bind(bindings, rawType, ((ParameterizedType)type).getActualTypeArguments());
+            for (Class<?> current = rawType; current.getSuperclass() != null; current = current.getSuperclass())
+            {
+                Type superType = current.getGenericSuperclass();
+                if (superType instanceof ParameterizedType)
+                    bind(bindings, current.getSuperclass(), ((ParameterizedType)superType).getActualTypeArguments());
+            }
+            return bindings;
+        }
+
+        private static void bind(final Map<TypeVariable<?>, Type> bindings, final Class<?> type, final Type[] arguments)
+        {
+            TypeVariable<?>[] variables = type.getTypeParameters();
+            for (int i = 0; i < variables.length && i < arguments.length; i++)
+                bindings.put(variables[i], resolve(arguments[i], bindings));
+        }
+
+        // Equal to, and hashed like, the JDK's own parameterized types, so either finds the same cached decoder
+        private static final class ResolvedParameterizedType implements ParameterizedType
+        {
+            private final Class<?> _rawType;
+            private final Type[] _arguments;
+            private final Type _ownerType;
+
+            private ResolvedParameterizedType(final Class<?> rawType, final Type[] arguments, final Type ownerType)
+            {
+                _rawType = rawType;
+                _arguments = arguments;
+                _ownerType = ownerType;
+            }
+
+            @Override
+            public Type[] getActualTypeArguments()
+            {
+                return _arguments.clone();
+            }
+
+            @Override
+            public Type getRawType()
+            {
+                return _rawType;
+            }
+
+            @Override
+            public Type getOwnerType()
+            {
+                return _ownerType;
+            }
+
+            @Override
+            public boolean equals(final Object obj)
+            {
+                if (!(obj instanceof ParameterizedType))
+                    return false;
+                ParameterizedType other = (ParameterizedType)obj;
+                return _rawType.equals(other.getRawType())
+                        && Objects.equals(_ownerType, other.getOwnerType())
+                        && Arrays.equals(_arguments, other.getActualTypeArguments());
+            }
+
+            @Override
+            public int hashCode()
+            {
+                return Arrays.hashCode(_arguments) ^ Objects.hashCode(_ownerType) ^ _rawType.hashCode();
+            }
+
+            @Override
+            public String toString()
+            {
+                return Arrays.stream(_arguments).map(Type::getTypeName).collect(Collectors.joining(", ", _rawType.getName() + "<", ">"));
+            }
+        }
+
+        // Arrays of parameterized types, such as List<String>[]. Equal to, and hashed like, the JDK's own.
+        private static final class ResolvedArrayType implements GenericArrayType
+        {
+            private final Type _componentType;
+
+            private ResolvedArrayType(final Type componentType)
+            {
+                _componentType = componentType;
+            }
+
+            @Override
+            public Type getGenericComponentType()
+            {
+                return _componentType;
+            }
+
+            @Override
+            public boolean equals(final Object obj)
+            {
+                return obj instanceof GenericArrayType && _componentType.equals(((GenericArrayType)obj).getGenericComponentType());
+            }
+
+            @Override
+            public int hashCode()
+            {
+                return _componentType.hashCode();
+            }
+
+            @Override
+            public String toString()
+            {
+                return _componentType.getTypeName() + "[]";
+            }
+        }
+
+        private static boolean isObjectType(final Class type)
+        {
+            return !type.isPrimitive()
+                    && !type.isArray()
+                    && !type.isEnum()
+                    && !type.isInterface()
+                    && !Modifier.isAbstract(type.getModifiers())
+                    && !Map.class.isAssignableFrom(type)
+                    && !_parsers.containsKey(type);
+        }
+
+        private static Object getBase64Bytes(final String stringValue)
+        {
+            return Base64.getDecoder().decode(stringValue);
+        }
+
+        private static boolean isNullLiteral(final String input)
+        {
+            return "null".equals(input);
+        }
+
+        private static <T> T tryCreateNewInstance(final Class<T> type, final boolean isRoot)
+        {
+            try
+            {
+                return createNewInstance(type);
+            }
+            catch (JsonException e)
+            {
+                if (isRoot)
+                    throw e;
+                return null;
+            }
+        }
+
+        private static <T> T createNewInstance(final Class<T> type)
         {
-            super(message);
+            try
+            {
+                if (JsonMetrics.IsEnabled)
+                    JsonMetrics.recordInstance(type);
+                ClassMetadata metadata = getMetadata(type);
+                if (metadata._adapter != null)
+                    return type.cast(metadata._adapter.newInstance());
+                return type.cast(metadata.getConstructor().newInstance());
+            }
+            catch (InstantiationException | NoSuchMethodException | InvocationTargetException | IllegalAccessException e)
+            {
+                throw new JsonException("Unable to create new object instance.", e);
+            }
         }
 
-        public JsonException(final String message, Exception ex)
+        private static boolean isWrappedWith(final String opener, final String closer, final String input)
         {
-            super(message, ex);
+            String trimmed = input.trim();
+            return trimmed.startsWith(opener) && trimmed.endsWith(closer);
         }
-    }
-    
-    private static class JsonDeserializer
-    {
-        private static Map<Class, Constructor> _constructors = new HashMap<>();
-        private static Map<Field, ParameterizedType> _genericTypes = new HashMap<>();
-        private static Map<Class, String> _canonicalNameByClass = new HashMap<>();
-        private static Map<String, Class> _classByCanonicalName = new HashMap<>();
-        private static Map<Class, Function<String, Object>> _parsers = new HashMap<>();
 
-        static
+        // Reads one element of a primitive array straight into its slot
+        private interface ArrayElementReader
         {
-            _parsers.put(byte.class, x -> Byte.parseByte(x));
-            _parsers.put(Byte.class, x -> Byte.parseByte(x));
-            _parsers.put(boolean.class, x -> Boolean.parseBoolean(x));
-            _parsers.put(Boolean.class, x -> Boolean.parseBoolean(x));
-            _parsers.put(int.class, x -> Integer.parseInt(x));
-            _parsers.put(Integer.class, x -> Integer.parseInt(x));
-            _parsers.put(long.class, x -> Long.parseLong(x));
-            _parsers.put(Long.class, x -> Long.parseLong(x));
-            _parsers.put(float.class, x -> Float.parseFloat(x));
-            _parsers.put(Float.class, x -> Float.parseFloat(x));
-            _parsers.put(double.class, x -> Double.parseDouble(x));
-            _parsers.put(Double.class, x -> Double.parseDouble(x));
-            _parsers.put(LocalDateTime.class, x -> LocalDateTime.parse(x));
-            _parsers.put(String.class, x -> getUnwrappedString(x));
-            _parsers.put(Object.class, x -> x);
+            void read(JsonReader reader, Object array, int index);
         }
 
-        private static <T> T getJsonObj(final Class<T> type, final String jsonString)
+        // Primitive elements are parsed into a primitive array, without boxing them into a List first. When the whole input is
+        // in memory, the elements are counted ahead so the array is allocated once; streamed arrays grow as needed.
+        // Like lists, the first conversion failure is deferred until the whole array has been read.
+        private static Object readArray(final JsonReader reader, final Class itemType, final ArrayElementReader elementReader, final ValueDecoder itemDecoder)
         {
-            return setValuesFromJsonString(createNewInstance(type), jsonString);
+            if (elementReader == null)
+            {
+                List values = readList(reader, itemDecoder);
+                return values.toArray((Object[])Array.newInstance(itemType, values.size()));
+            }
+
+            reader.expect('[');
+            int capacity = reader.countElements();
+            capacity = capacity < 0 ? 16 : capacity;
+            Object array = Array.newInstance(itemType, capacity);
+            int count = 0;
+            RuntimeException failure = null;
+            if (!reader.consume(']'))
+            {
+                do
+                {
+                    if (count == capacity)
+                        array = resize(array, itemType, capacity = Math.max(16, capacity * 2), count);
+                    try
+                    {
+                        elementReader.read(reader, array, count++);
+                    }
+                    catch (JsonException e)
+                    {
+                        throw e;
+                    }
+                    catch (RuntimeException e)
+                    {
+                        failure = failure == null ? e : failure;
+                    }
+                }
+                while (reader.consume(','));
+                reader.expect(']');
+            }
+            if (failure != null)
+                throw failure;
+            return count == capacity ? array : resize(array, itemType, count, count);
         }
 
-        private static <T> T setValuesFromJsonString(final T obj, final String jsonString)
+        private static Object resize(final Object array, final Class itemType, final int length, final int count)
         {
-            Map<String, String> jsonElements = getJsonElements(jsonString);
-            if (jsonElements.size() == 0)
-                throw new JsonException("Json string contains no elements.");
+            Object resized = Array.newInstance(itemType, length);
+            System.arraycopy(array, 0, resized, 0, count);
+            return resized;
+        }
+    }
 
-            List<Field> fieldsToMap = getFields(obj).stream()
-                    .filter(x -> jsonElements.containsKey(x.getName()))
-                    .collect(Collectors.toList());
-            if (fieldsToMap.size() == 0)
-                throw new JsonException("No Json string elements match object type: " + obj.getClass());
+    // Serialization target. Implements Output so that compiled adapters write to it directly.
+    private static abstract class JsonWriter implements Output
+    {
+        // Set when large lists and arrays may be written in parallel
+        Executor _executor;
+        int _parallelism;
+        // Numbers are formatted here and then appended. The longest, such as -2.2250738585072014E-308, take 24 chars.
+        final char[] _number = new char[32];
 
-            fieldsToMap.forEach(x -> setFieldValue(obj, x, jsonElements.get(x.getName())));
-            return obj;
-        }
+        // Replacements for the ASCII chars that cannot appear in a Json string as they are. All other chars are copied in runs.
+        private static final String[] Escapes = new String[128];
 
-        private static void validateJsonString(final String jsonString)
+        static
         {
-            if (jsonString == null)
-                throw new JsonException("Invalid Json string: null");
-            if (!isJsonObject(jsonString))
-                throw new JsonException("Invalid Json string: " + jsonString);
+            for (int c = 0; c < 0x20; c++)
+                Escapes[c] = String.format("\\u%04x", c);
+            Escapes['"'] = "\\\"";
+            Escapes['\\'] = "\\\\";
+            Escapes['\b'] = "\\b";
+            Escapes['\f'] = "\\f";
+            Escapes['\n'] = "\\n";
+            Escapes['\r'] = "\\r";
+            Escapes['\t'] = "\\t";
         }
 
-        private static Map<String, String> getJsonElements(final String jsonString)
+        abstract JsonWriter append(String text, int start, int end);
+
+        JsonWriter append(final String text)
         {
-            validateJsonString(jsonString);
-            return getElements(jsonString).stream().collect(Collectors.toMap(x -> getUnwrappedElementKey(x), x -> getElementValue(x)));
+            return append(text, 0, text.length());
         }
 
-        private static String getUnwrappedElementKey(final String input)
+        JsonWriter appendQuoted(final String text)
         {
-            return getJsonStringValue(getElementKey(input));
+            append("\"");
+            int start = 0;
+            int length = text.length();
+            for (int i = 0; i < length; i++)
+            {
+                char c = text.charAt(i);
+                if (c < 128 && Escapes[c] != null)
+                {
+                    append(text, start, i).append(Escapes[c]);
+                    start = i + 1;
+                }
+            }
+            return append(text, start, length).append("\"");
         }
 
-        private static String getElementKey(final String input)
+        static String quote(final String text)
         {
-            return input.substring(0, input.indexOf(":")).trim();
+            return new StringJsonWriter().appendQuoted(text).toString();
         }
 
-        private static String getElementValue(final String input)
+        JsonWriter inParallel(final Executor executor)
         {
-            return input.substring(input.indexOf(":") + 1).trim();
+            if (executor == null)
+                throw new JsonException("Invalid executor: null");
+            _executor = executor;
+            _parallelism = getParallelism(executor);
+            return this;
         }
 
-        private static List<String> getElements(final String input)
+        // Called once a call is done with the writer, so that writers kept for reuse are ready for the next one
+        void release()
         {
-            List<String> elements = new ArrayList<>();
+            _executor = null;
+        }
 
-            int startIndex = -1;
-            int endIndex = -1;
-            int objectDepth = 0;
-            for (int i = 0; i < input.length(); i++)
-            {
-                char ch = input.charAt(i);
-                if (Character.isWhitespace(ch))
-                    continue;
-                if (isObjectCloser(ch))
-                    objectDepth--;
-                if (startIndex == -1 && objectDepth > 0)
-                    startIndex = i;
-                if (startIndex != -1 && objectDepth > 0)
-                    endIndex = i + 1;
-                if (isObjectOpener(ch))
-                    objectDepth++;
-                if (objectDepth == 1 && ch == ',')
-                    endIndex = endIndex - 1;
-                if (objectDepth == 0 || objectDepth == 1 && ch == ',')
-                {
-                    if (startIndex > 0 && endIndex > startIndex)
-                        elements.add(input.substring(startIndex, endIndex));
-                    startIndex = -1;
-                }
-            }
+        // Appends ASCII chars, such as formatted numbers
+        abstract JsonWriter append(char[] chars, int length);
 
-            return elements;
+        // Chars, or UTF-8 bytes, written so far
+        abstract long length();
+
+        JsonWriter append(final int value)
+        {
+            return append((long)value);
         }
 
-        private static boolean isObjectOpener(final char ch)
+        JsonWriter append(final long value)
         {
-            return ch == '{' || ch == '[';
+            return append(_number, JsonNumbers.writeLong(value, _number, 0));
         }
 
-        private static boolean isObjectCloser(final char ch)
+        JsonWriter append(final float value)
         {
-            return ch == '}' || ch == ']';
+            return append(_number, JsonNumbers.writeFloat(value, _number, 0));
         }
 
-        // Field is required for Lists and Maps because of Generic Type Erasure
-        private static Object getObjectValue(final Field field, final String stringValue)
+        JsonWriter append(final double value)
         {
-            if (List.class.isAssignableFrom(field.getType()) && isJsonArray(stringValue))
-                return toObjectList(getParameterizedType(field), stringValue);
-            if (Map.class.isAssignableFrom(field.getType()) && isJsonArray(stringValue))
-                return toObjectMap(getParameterizedType(field), stringValue);
-            return getObjectValue(field.getType(), stringValue);
+            return append(_number, JsonNumbers.writeDouble(value, _number, 0));
         }
 
-        private static Object getObjectValue(final Class type, final String stringValue)
+        JsonWriter append(final boolean value)
         {
-            if (isNullLiteral(stringValue))
-                return null;
-            String unwrapped = getUnwrappedString(stringValue);
-            if (type.isEnum())
-                return Enum.valueOf(type, unwrapped);
-            if (type.isArray() && isJsonArray(stringValue))
-                return toArray(type, stringValue);
-            if (type.equals(byte[].class) && isJsonString(stringValue))
-                return getBase64Bytes(unwrapped);
-            if (isJsonObject(stringValue))
-                return getJsonObj(getCanonicalName(type), stringValue);
-            if (_parsers.containsKey(type))
-                return _parsers.get(type).apply(unwrapped);
-            return null;
+            return append(value ? "true" : "false");
         }
 
-        private static Object getBase64Bytes(final String stringValue)
+        // Writes out anything still buffered
+        void flush() throws IOException
         {
-            return Base64.getDecoder().decode(stringValue);
         }
 
-        private static String getJsonStringValue(final String input)
+        @Override
+        public Output raw(final String json)
         {
-            return isJsonString(input) ? unwrap(input) : null;
+            return append(json);
         }
 
-        private static String getUnwrappedString(final String input)
+        @Override
+        public Output value(final int value)
         {
-            return isJsonString(input) ? unwrap(input) : input;
+            return append(value);
         }
 
-        private static boolean isJsonString(final String input)
+        @Override
+        public Output value(final long value)
         {
-            return isWrappedWith("\"", "\"", input);
+            return append(value);
         }
 
-        private static boolean isNullLiteral(final String input)
+        @Override
+        public Output value(final float value)
         {
-            return "null".equals(input);
+            return append(value);
         }
 
-        private static String getCanonicalName(final Class type)
+        @Override
+        public Output value(final double value)
         {
-            if(!_canonicalNameByClass.containsKey(type))
-                _canonicalNameByClass.put(type, type.getCanonicalName());
-            return _canonicalNameByClass.get(type);
+            return append(value);
         }
 
-        private static ParameterizedType getParameterizedType(final Field field)
+        @Override
+        public Output value(final boolean value)
         {
-            if (!_genericTypes.containsKey(field))
-                _genericTypes.put(field, (ParameterizedType)field.getGenericType());
-            return _genericTypes.get(field);
+            return append(value);
         }
 
-        private static <T> T createNewInstance(final Class<T> type)
+        @Override
+        public Output value(final Object value)
         {
-            try
-            {
-                if (!_constructors.containsKey(type))
-                    _constructors.put(type, ReflectionFactory.getReflectionFactory().newConstructorForSerialization(type, Object.class.getDeclaredConstructor()));
-                return type.cast(_constructors.get(type).newInstance());
-            }
-            catch (InstantiationException | NoSuchMethodException | InvocationTargetException | IllegalAccessException e)
-            {
-                throw new JsonException("Unable to create new object instance.", e);
-            }
+            return JsonSerializer.writeJsonValue(this, value);
         }
+    }
 
-        @SuppressWarnings("unchecked")
-        private static <T> T getJsonObj(final String canonicalName, final String jsonString)
+    // Idle writers kept for reuse, shared by all threads and bounded by the number of processors. Unlike thread-locals, idle
+    // buffers neither pile up on every thread of a server's pool nor tie those threads to a redeployed copy of the library.
+    // A writer leaves the pool while in use, so reentrant calls, such as from an adapter, take or create another one.
+    private static final class WriterPool<T extends JsonWriter>
+    {
+        private static final int Size = Math.min(8, Runtime.getRuntime().availableProcessors());
+
+        private final AtomicReferenceArray<T> _writers = new AtomicReferenceArray<>(Size);
+
+        // Returns null when no idle writer is left. Threads start from different slots, so they rarely contend.
+        T take()
         {
-            try
+            int start = (int)Thread.currentThread().getId();
+            for (int i = 0; i < Size; i++)
             {
-                if (!_classByCanonicalName.containsKey(canonicalName))
-                    _classByCanonicalName.put(canonicalName, Class.forName(canonicalName));
-                return (T) getJsonObj(_classByCanonicalName.get(canonicalName), jsonString);
-            }
-            catch (ClassNotFoundException e)
-            {
-                throw new JsonException("Unknown class: '" + canonicalName + "'", e);
+                int slot = Math.floorMod(start + i, Size);
+                T writer = _writers.get(slot);
+                if (writer != null && _writers.compareAndSet(slot, writer, null))
+                    return writer;
             }
+            return null;
         }
 
-        private static void setFieldValue(final Object obj, final Field field, final String stringValue)
+        // Drops the writer when the pool is full
+        void give(final T writer)
         {
-            Object value;
-            try
-            {
-                value = getObjectValue(field, stringValue);
-            }
-            catch (Exception e)
+            int start = (int)Thread.currentThread().getId();
+            for (int i = 0; i < Size; i++)
             {
-                return;
+                int slot = Math.floorMod(start + i, Size);
+                if (_writers.get(slot) == null && _writers.compareAndSet(slot, null, writer))
+                    return;
             }
-
-            setFieldValue(obj, field, value);
         }
+    }
+
+    // Writers are pooled and their buffers reused, so that serializing allocates little more than the resulting String.
+    // The initial capacity of fresh writers follows the output size of the root class, and buffers that grew too large are not kept.
+    private static final class StringJsonWriter extends JsonWriter
+    {
+        private static final int MaxReusedCapacity = 1 << 18;
+        private static final WriterPool<StringJsonWriter> _pool = new WriterPool<>();
 
-        private static void setFieldValue(final Object obj, final Field field, final Object value)
+        private StringBuilder _sb;
+
+        private StringJsonWriter(final int capacity)
         {
-            try
-            {
-                boolean accessible = field.isAccessible();
-                field.setAccessible(true);
-                field.set(obj, value);
-                field.setAccessible(accessible);
-            }
-            catch (IllegalAccessException e)
-            {
-                throw new JsonException("Unable to set field value: '" + field.getName() + "'");
-            }
+            _sb = new StringBuilder(capacity);
         }
 
-        private static boolean isWrappedWith(final String opener, final String closer, final String input)
+        private StringJsonWriter()
         {
-            String trimmed = input.trim();
-            return trimmed.startsWith(opener) && trimmed.endsWith(closer);
+            this(16);
         }
 
-        private static String unwrap(final String obj)
+        static StringJsonWriter acquire(final Object root)
         {
-            String trimmed = obj.trim();
-            return trimmed.substring(1, trimmed.length() - 1).trim();
+            StringJsonWriter writer = _pool.take();
+            int sizeHint = root == null ? 16 : getMetadata(root.getClass()).getSizeHint();
+            if (writer == null)
+                return new StringJsonWriter(Math.max(256, sizeHint));
+            writer._sb.ensureCapacity(sizeHint);
+            return writer;
         }
 
-        private static boolean isJsonArray(final String jsonElement)
+        void release(final Object root)
         {
-            return isWrappedWith("[", "]", jsonElement);
+            if (root != null)
+                getMetadata(root.getClass()).addSizeSample(_sb.length());
+            _executor = null;
+            if (_sb.capacity() > MaxReusedCapacity)
+                return;
+            _sb.setLength(0);
+            _pool.give(this);
         }
 
-        private static Class getArrayItemType(final Class type)
+        @Override
+        JsonWriter append(final String text, final int start, final int end)
         {
-            return type.isArray() ? type.getComponentType() : type;
+            _sb.append(text, start, end);
+            return this;
         }
 
-        private static Object toObjectMap(final ParameterizedType genericType, final String jsonArray)
+        @Override
+        JsonWriter append(final int value)
         {
-            Type keyType = genericType.getActualTypeArguments()[0];
-            Type valueType = genericType.getActualTypeArguments()[1];
-            Map<String, String> itemStrings = getRawJsonElements(unwrap(jsonArray));
-            Map itemMap = new HashMap<>();
-            itemStrings.entrySet().forEach(x -> putItem(x, itemMap, (Class)keyType, (Class)valueType));
-            return itemMap;
+            _sb.append(value);
+            return this;
         }
 
-        private static Map<String, String> getRawJsonElements(final String jsonString)
+        @Override
+        JsonWriter append(final long value)
         {
-            return getElements(jsonString).stream().collect(Collectors.toMap(x -> getElementKey(x), x -> getElementValue(x)));
+            _sb.append(value);
+            return this;
         }
 
-        private static void putItem(final Map.Entry<String, String> item, Map map, final Class keyType, final Class valueType)
+        @Override
+        JsonWriter append(final char[] chars, final int length)
         {
-            Object key = toObj(keyType, item.getKey());
-            Object value = toObj(valueType, item.getValue());
-            map.put(key, value);
+            _sb.append(chars, 0, length);
+            return this;
         }
 
-        private static List toObjectList(final ParameterizedType type, final String jsonArray)
+        @Override
+        long length()
         {
-            Type innerType = type.getActualTypeArguments()[0];
-            if (innerType instanceof ParameterizedType)
-                return Collections.singletonList(toObjectList((ParameterizedType)innerType, unwrap(jsonArray)));
-            if (innerType instanceof Class)
-                return toObjectList((Class)innerType, jsonArray);
-            return new ArrayList<>();
+            return _sb.length();
         }
 
-        private static List toObjectList(final Class type, final String jsonArray)
+        @Override
+        public String toString()
         {
-            Class itemType = getArrayItemType(type);
-            return getElements(jsonArray).stream()
-                    .map(x -> getObjectValue(itemType, x))
-                    .collect(Collectors.toList());
+            return _sb.toString();
         }
+    }
 
-        private static Object toArray(final Class type, final String jsonArray)
+    // Buffers chars and hands them to the Writer whenever the buffer fills up.
+    // Writers, and so their buffers, are pooled for writeTo like StringJsonWriter.
+    private static final class CharJsonWriter extends JsonWriter
+    {
+        private static final WriterPool<CharJsonWriter> _pool = new WriterPool<>();
+
+        private Writer _writer;
+        private final char[] _buffer = new char[4096];
+        private int _count;
+        private long _flushed;
+
+        static CharJsonWriter acquire(final Writer writer)
         {
-            List values = toObjectList(type, jsonArray);
+            CharJsonWriter jsonWriter = _pool.take();
+            if (jsonWriter == null)
+                jsonWriter = new CharJsonWriter();
+            jsonWriter._writer = writer;
+            return jsonWriter;
+        }
 
-            final Class itemType = getArrayItemType(type);
-            int count = values.size();
+        @Override
+        void release()
+        {
+            super.release();
+            _writer = null;
+            _count = 0;
+            _flushed = 0;
+            _pool.give(this);
+        }
 
-            if (itemType.getSimpleName().equals("int"))
+        @Override
+        JsonWriter append(final String text, final int start, final int end)
+        {
+            for (int from = start; from < end; )
             {
-                int[] result = new int[count];
-                for (int i = 0; i < count; i++)
-                    result[i] = (int) values.get(i);
-                return result;
+                if (_count == _buffer.length)
+                    drain();
+                int to = Math.min(end, from + _buffer.length - _count);
+                text.getChars(from, to, _buffer, _count);
+                _count += to - from;
+                from = to;
             }
+            return this;
+        }
+
+        @Override
+        JsonWriter append(final char[] chars, final int length)
+        {
+            if (_count > _buffer.length - length)
+                drain();
+            System.arraycopy(chars, 0, _buffer, _count, length);
+            _count += length;
+            return this;
+        }
+
+        @Override
+        void flush() throws IOException
+        {
+            _writer.write(_buffer, 0, _count);
+            _flushed += _count;
+            _count = 0;
+        }
+
+        @Override
+        long length()
+        {
+            return _flushed + _count;
+        }
 
-            if (itemType.getSimpleName().equals("long"))
+        // IO failures travel through the serializer unchecked and are unwrapped again by Json.writeTo
+        private void drain()
+        {
+            try
             {
-                long[] result = new long[count];
-                for (int i = 0; i < count; i++)
-                    result[i] = (long) values.get(i);
-                return result;
+                flush();
             }
-
-            if (itemType.getSimpleName().equals("float"))
+            catch (IOException e)
             {
-                float[] result = new float[count];
-                for (int i = 0; i < count; i++)
-                    result[i] = (float) values.get(i);
-                return result;
+                throw new UncheckedIOException(e);
             }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ByteSink
+    {
+        void write(byte[] bytes, int length) throws IOException;
+    }
+
+    // Encodes UTF-8 straight into a bounded byte buffer and hands it to the sink whenever it fills up.
+    // Writers, and so their buffers, are pooled for writeTo like StringJsonWriter.
+    private static final class Utf8JsonWriter extends JsonWriter
+    {
+        private static final WriterPool<Utf8JsonWriter> _pool = new WriterPool<>();
+
+        private ByteSink _sink;
+        private final byte[] _buffer = new byte[8192];
+        private int _count;
+        private long _flushed;
+
+        static Utf8JsonWriter acquire(final ByteSink sink)
+        {
+            Utf8JsonWriter writer = _pool.take();
+            if (writer == null)
+                writer = new Utf8JsonWriter();
+            writer._sink = sink;
+            return writer;
+        }
+
+        @Override
+        void release()
+        {
+            super.release();
+            _sink = null;
+            _count = 0;
+            _flushed = 0;
+            _pool.give(this);
+        }
 
-            if (itemType.getSimpleName().equals("double"))
+        @Override
+        JsonWriter append(final String text, final int start, final int end)
+        {
+            for (int i = start; i < end; i++)
             {
-                double[] result = new double[count];
-                for (int i = 0; i < count; i++)
-                    result[i] = (double) values.get(i);
-                return result;
+                // Room for the longest encoding: 4 bytes for a surrogate pair
+                if (_count > _buffer.length - 4)
+                    drain();
+                char c = text.charAt(i);
+                if (c < 0x80)
+                    _buffer[_count++] = (byte)c;
+                else if (c < 0x800)
+                {
+                    _buffer[_count++] = (byte)(0xC0 | c >> 6);
+                    _buffer[_count++] = (byte)(0x80 | c & 0x3F);
+                }
+                else if (!Character.isSurrogate(c))
+                {
+                    _buffer[_count++] = (byte)(0xE0 | c >> 12);
+                    _buffer[_count++] = (byte)(0x80 | c >> 6 & 0x3F);
+                    _buffer[_count++] = (byte)(0x80 | c & 0x3F);
+                }
+                else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1)))
+                {
+                    int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                    _buffer[_count++] = (byte)(0xF0 | codePoint >> 18);
+                    _buffer[_count++] = (byte)(0x80 | codePoint >> 12 & 0x3F);
+                    _buffer[_count++] = (byte)(0x80 | codePoint >> 6 & 0x3F);
+                    _buffer[_count++] = (byte)(0x80 | codePoint & 0x3F);
+                }
+                else
+                    // Unpaired surrogates have no UTF-8 encoding. Replaced the same way as String.getBytes does.
+                    _buffer[_count++] = '?';
             }
+            return this;
+        }
+
+        @Override
+        JsonWriter append(final char[] chars, final int length)
+        {
+            if (_count > _buffer.length - length)
+                drain();
+            for (int i = 0; i < length; i++)
+                _buffer[_count++] = (byte)chars[i];
+            return this;
+        }
+
+        @Override
+        void flush() throws IOException
+        {
+            _sink.write(_buffer, _count);
+            _flushed += _count;
+            _count = 0;
+        }
 
-            if (itemType.getSimpleName().equals("byte"))
+        @Override
+        long length()
+        {
+            return _flushed + _count;
+        }
+
+        private void drain()
+        {
+            try
             {
-                byte[] result = new byte[count];
-                for (int i = 0; i < count; i++)
-                    result[i] = (byte) values.get(i);
-                return result;
+                flush();
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
             }
-
-            return values.toArray((Object[]) Array.newInstance(itemType, count));
         }
     }
 
     private static class JsonSerializer
     {
-        private static final BiConsumer<StringBuilder, Object> _writeLiteral = (sb, x) -> sb.append(x.toString());
-        private static final BiConsumer<StringBuilder, Object> _writeString = (sb, x) -> sb.append("\"").append(x.toString()).append("\"");
+        // Lists and arrays smaller than this are always written serially
+        private static final int ParallelThreshold = 4096;
+        private static final int ChunkSize = 1024;
+
+        private static final BiConsumer<JsonWriter, Object> _writeNull = (out, x) -> out.append("null");
+        private static final BiConsumer<JsonWriter, Object> _writeLiteral = (out, x) -> out.append(x.toString());
+        private static final BiConsumer<JsonWriter, Object> _writeInteger = (out, x) -> out.append(((Number)x).longValue());
+        private static final BiConsumer<JsonWriter, Object> _writeFloat = (out, x) -> out.append(((Float)x).floatValue());
+        private static final BiConsumer<JsonWriter, Object> _writeDouble = (out, x) -> out.append(((Double)x).doubleValue());
+        private static final BiConsumer<JsonWriter, Object> _writeString = (out, x) -> out.appendQuoted(x.toString());
 
-        private static final Map<Class, BiConsumer<StringBuilder, Object>> _writers = new HashMap<>();
+        // Built-in writers. Only populated during class initialization and read-only afterwards
+        private static final Map<Class, BiConsumer<JsonWriter, Object>> _writers = new HashMap<>();
 
         static
         {
-            _writers.put(byte.class, _writeLiteral);
-            _writers.put(Byte.class, _writeLiteral);
-            _writers.put(int.class, _writeLiteral);
-            _writers.put(Integer.class, _writeLiteral);
-            _writers.put(long.class, _writeLiteral);
-            _writers.put(Long.class, _writeLiteral);
-            _writers.put(float.class, _writeLiteral);
-            _writers.put(Float.class, _writeLiteral);
-            _writers.put(double.class, _writeLiteral);
-            _writers.put(Double.class, _writeLiteral);
+            _writers.put(byte.class, _writeInteger);
+            _writers.put(Byte.class, _writeInteger);
+            _writers.put(int.class, _writeInteger);
+            _writers.put(Integer.class, _writeInteger);
+            _writers.put(long.class, _writeInteger);
+            _writers.put(Long.class, _writeInteger);
+            _writers.put(float.class, _writeFloat);
+            _writers.put(Float.class, _writeFloat);
+            _writers.put(double.class, _writeDouble);
+            _writers.put(Double.class, _writeDouble);
             _writers.put(boolean.class, _writeLiteral);
             _writers.put(Boolean.class, _writeLiteral);
             _writers.put(String.class, _writeString);
             _writers.put(LocalDateTime.class, _writeString);
-            _writers.put(byte[].class, (sb, x) -> JsonSerializer.writeJsonValue(sb, Base64.getEncoder().encodeToString((byte[])x)));
+            _writers.put(byte[].class, (out, x) -> JsonSerializer.writeJsonValue(out, Base64.getEncoder().encodeToString((byte[])x)));
+            _writers.put(int[].class, (out, x) -> writeItems(out, ((int[])x).length, (chunk, first, last) -> writeInts(chunk, (int[])x, first, last)));
+            _writers.put(long[].class, (out, x) -> writeItems(out, ((long[])x).length, (chunk, first, last) -> writeLongs(chunk, (long[])x, first, last)));
+            _writers.put(double[].class, (out, x) -> writeItems(out, ((double[])x).length, (chunk, first, last) -> writeDoubles(chunk, (double[])x, first, last)));
+            _writers.put(float[].class, (out, x) -> writeItems(out, ((float[])x).length, (chunk, first, last) -> writeFloats(chunk, (float[])x, first, last)));
+            _writers.put(boolean[].class, (out, x) -> writeItems(out, ((boolean[])x).length, (chunk, first, last) -> writeBooleans(chunk, (boolean[])x, first, last)));
         }
 
-        private static StringBuilder writeJsonValue(final StringBuilder sb, final Object obj)
+        private static JsonWriter writeJsonValue(final JsonWriter out, final Object obj)
         {
-            getWriter(obj).accept(sb, obj);
-            return sb;
+            getWriter(obj).accept(out, obj);
+            return out;
         }
 
-        private static BiConsumer<StringBuilder, Object> getWriter(final Object obj)
+        private static BiConsumer<JsonWriter, Object> getWriter(final Object obj)
         {
             if (obj == null)
-                return (sb, x) -> sb.append("null");
+                return _writeNull;
 
-            Class objClass = obj.getClass();
-            if (!_writers.containsKey(objClass))
-                initWriter(obj);
-            return (sb, x) -> _writers.get(objClass).accept(sb, x);
+            return getMetadata(obj.getClass()).getWriter();
         }
 
-        private static void initWriter(final Object obj)
+        private static BiConsumer<JsonWriter, Object> createWriter(final Class objClass)
         {
-            Class objClass = obj.getClass();
+            if (_writers.containsKey(objClass))
+                return _writers.get(objClass);
+            Adapter<Object> adapter = getMetadata(objClass)._adapter;
+            if (adapter != null)
+                return adapter::write;
             if (objClass.isEnum())
-                _writers.put(objClass, _writeString);
-            if (obj instanceof List<?>)
-                _writers.put(objClass, (sb, x) -> writeList(sb, x));
-            if (Map.class.isAssignableFrom(obj.getClass()))
-                _writers.put(objClass, (sb, x) -> writeMap(sb, x));
+                return _writeString;
+            if (List.class.isAssignableFrom(objClass))
+                return (out, x) -> writeList(out, x);
+            if (Map.class.isAssignableFrom(objClass))
+                return (out, x) -> writeMap(out, x);
             if (objClass.isArray())
-                _writers.put(objClass, (sb, x) -> writeArray(sb, x));
-            if (!_writers.containsKey(objClass))
-                _writers.put(objClass, (sb, x) -> writeJsonObj(sb, x));
+                return (out, x) -> writeArray(out, x);
+            return new ObjectWriter(objClass);
         }
 
-        private static List<Field> getFields(final Object obj)
+        // Serialization plan for one class. Built once, immutable, and shared between threads.
+        private static final class ObjectWriter implements BiConsumer<JsonWriter, Object>
         {
-            Class objClass = obj.getClass();
-            if (!_classFields.containsKey(objClass))
-                cacheClassFields(obj);
-            return _classFields.get(objClass);
+            private final FieldWriter[] _fieldWriters;
+
+            private ObjectWriter(final Class type)
+            {
+                List<Field> fields = getFields(type);
+                _fieldWriters = new FieldWriter[fields.size()];
+                for (int i = 0; i < _fieldWriters.length; i++)
+                    _fieldWriters[i] = createFieldWriter(fields.get(i), (i == 0 ? "" : ", ") + JsonWriter.quote(fields.get(i).getName()) + ": ");
+            }
+
+            @Override
+            public void accept(final JsonWriter out, final Object obj)
+            {
+                out.append("{ ");
+                try
+                {
+                    for (FieldWriter fieldWriter : _fieldWriters)
+                        fieldWriter.write(out, obj);
+                }
+                catch (RuntimeException | Error e)
+                {
+                    throw e;
+                }
+                catch (Throwable e)
+                {
+                    throw new JsonException("Unable to get field value of: " + obj.getClass(), e);
+                }
+                out.append(_fieldWriters.length == 0 ? "}" : " }");
+            }
         }
 
-        private static void cacheClassFields(final Object obj)
+        @FunctionalInterface
+        private interface FieldWriter
         {
-            Set<Field> fields = new LinkedHashSet<>();
-            Arrays.stream(obj.getClass().getFields())
-                    .forEach(x -> fields.add(x));
-            Arrays.stream(obj.getClass().getDeclaredFields())
-                    .filter(x -> Modifier.isPrivate(x.getModifiers()) && !Modifier.isStatic(x.getModifiers()))
-                    .forEach(x -> fields.add(x));
-            List<Field> fieldsList = fields.stream().collect(Collectors.toList());
-            _classFields.put(obj.getClass(), fieldsList);
+            void write(JsonWriter out, Object obj) throws Throwable;
+        }
+
+        // Primitive fields are read and appended without boxing. Fields whose declared type fixes the runtime class
+        // are bound to that class's writer up front; all others are dispatched on the runtime class of their value.
+        private static FieldWriter createFieldWriter(final Field field, final String prefix)
+        {
+            Class<?> type = field.getType();
+            if (type == int.class)
+            {
+                MethodHandle getter = createGetter(field, int.class);
+                return (out, obj) -> out.append(prefix).append((int)getter.invokeExact(obj));
+            }
+            if (type == long.class)
+            {
+                MethodHandle getter = createGetter(field, long.class);
+                return (out, obj) -> out.append(prefix).append((long)getter.invokeExact(obj));
+            }
+            if (type == double.class)
+            {
+                MethodHandle getter = createGetter(field, double.class);
+                return (out, obj) -> out.append(prefix).append((double)getter.invokeExact(obj));
+            }
+            if (type == float.class)
+            {
+                MethodHandle getter = createGetter(field, float.class);
+                return (out, obj) -> out.append(prefix).append((float)getter.invokeExact(obj));
+            }
+            if (type == boolean.class)
+            {
+                MethodHandle getter = createGetter(field, boolean.class);
+                return (out, obj) -> out.append(prefix).append((boolean)getter.invokeExact(obj));
+            }
+            if (type == byte.class)
+            {
+                MethodHandle getter = createGetter(field, byte.class);
+                return (out, obj) -> out.append(prefix).append((byte)getter.invokeExact(obj));
+            }
+
+            MethodHandle getter = createGetter(field, Object.class);
+            if (isExactType(type))
+            {
+                ClassMetadata metadata = getMetadata(type);
+                return (out, obj) -> {
+                    Object value = (Object)getter.invokeExact(obj);
+                    out.append(prefix);
+                    (value == null ? _writeNull : metadata.getWriter()).accept(out, value);
+                };
+            }
+            return (out, obj) -> writeJsonValue(out.append(prefix), (Object)getter.invokeExact(obj));
         }
 
-        private static Object getFieldValue(final Field field, final Object obj)
+        // Values of final classes always have exactly the declared class. Arrays of references are covariant, so they do not.
+        private static boolean isExactType(final Class<?> type)
+        {
+            return Modifier.isFinal(type.getModifiers())
+                    && (!type.isArray() || type.getComponentType().isPrimitive());
+        }
+
+        private static MethodHandle createGetter(final Field field, final Class<?> valueType)
         {
             try
             {
-                if (!field.isAccessible())
-                    field.setAccessible(true);
-                return field.get(obj);
+                MethodHandle getter = MethodHandles.lookup().unreflectGetter(field);
+                if (Modifier.isStatic(field.getModifiers()))
+                    getter = MethodHandles.dropArguments(getter, 0, Object.class);
+                return getter.asType(MethodType.methodType(valueType, Object.class));
+            }
+            catch (IllegalAccessException e)
+            {
+                throw new JsonException("Unable to get field value: '" + field.getName() + "'", e);
+            }
+        }
+
+
+        // Writes the items in [first, last), separated by ", ". Primitive arrays have their own, so that items are not boxed.
+        private interface RangeWriter
+        {
+            void write(JsonWriter out, int first, int last);
+        }
+
+        // Separators are written ahead of every item but the first, as streamed output cannot be taken back
+        private static void writeList(final JsonWriter out, final Object list)
+        {
+            if (isParallel(out, ((List<?>)list).size()))
+            {
+                Object[] items = ((List<?>)list).toArray();
+                writeParallel(out, items.length, (chunk, first, last) -> writeObjects(chunk, items, first, last));
+                return;
             }
-            catch (IllegalAccessException ex)
+            out.append("[");
+            String separator = " ";
+            for (Object item : (List<?>)list)
             {
-                throw new JsonException("Unable to get field value: '" + field.getName() + "'");
+                writeJsonValue(out.append(separator), item);
+                separator = ", ";
             }
+            out.append(" ]");
         }
 
-        private static void writeJsonObj(final StringBuilder sb, final Object obj)
+        // Arrays of references, and the remaining primitive arrays, which are written through their boxed values
+        private static void writeArray(final JsonWriter out, final Object array)
         {
-            sb.append("{ ");
-            for (Field field : getFields(obj))
+            if (array instanceof Object[])
+                writeItems(out, ((Object[])array).length, (chunk, first, last) -> writeObjects(chunk, (Object[])array, first, last));
+            else
+                writeItems(out, Array.getLength(array), (chunk, first, last) -> {
+                    for (int i = first; i < last; i++)
+                        writeJsonValue(i == first ? chunk : chunk.append(", "), Array.get(array, i));
+                });
+        }
+
+        private static void writeItems(final JsonWriter out, final int size, final RangeWriter items)
+        {
+            if (isParallel(out, size))
             {
-                sb.append("\"").append(field.getName()).append("\": ");
-                writeJsonValue(sb, getFieldValue(field, obj)).append(", ");
+                writeParallel(out, size, items);
+                return;
             }
-            removeExtraComma(sb).append("}");
+            out.append("[");
+            if (size > 0)
+                items.write(out.append(" "), 0, size);
+            out.append(" ]");
+        }
+
+        private static void writeObjects(final JsonWriter out, final Object[] items, final int first, final int last)
+        {
+            for (int i = first; i < last; i++)
+                writeJsonValue(i == first ? out : out.append(", "), items[i]);
+        }
+
+        private static void writeInts(final JsonWriter out, final int[] items, final int first, final int last)
+        {
+            for (int i = first; i < last; i++)
+                (i == first ? out : out.append(", ")).append(items[i]);
+        }
+
+        private static void writeLongs(final JsonWriter out, final long[] items, final int first, final int last)
+        {
+            for (int i = first; i < last; i++)
+                (i == first ? out : out.append(", ")).append(items[i]);
+        }
+
+        private static void writeDoubles(final JsonWriter out, final double[] items, final int first, final int last)
+        {
+            for (int i = first; i < last; i++)
+                (i == first ? out : out.append(", ")).append(items[i]);
         }
 
-        private static void writeList(final StringBuilder sb, final Object list)
+        private static void writeFloats(final JsonWriter out, final float[] items, final int first, final int last)
         {
-            writeJsonArray(sb, () -> {
-                for (Object item : (List<?>) list)
-                    writeJsonValue(sb, item).append(", "); });
+            for (int i = first; i < last; i++)
+                (i == first ? out : out.append(", ")).append(items[i]);
         }
 
-        private static void writeArray(final StringBuilder sb, final Object array)
+        private static void writeBooleans(final JsonWriter out, final boolean[] items, final int first, final int last)
         {
-            writeJsonArray(sb, () -> {
-                for (int i = 0; i < Array.getLength(array); i ++)
-                    writeJsonValue(sb, Array.get(array, i)).append(", ");});
+            for (int i = first; i < last; i++)
+                (i == first ? out : out.append(", ")).append(items[i]);
         }
 
-        private static void writeMap(final StringBuilder sb, final Object map)
+        private static boolean isParallel(final JsonWriter out, final int size)
         {
-            writeJsonArray(sb, () -> {
-                for (Object entry : ((Map)map).entrySet())
+            return out._executor != null && size >= ParallelThreshold;
+        }
+
+        // Each chunk of items is written into its own buffer on the executor, then appended in order with the same
+        // separators as serial output. Items are written serially within a chunk. Only a bounded number of chunks
+        // are in flight, so streamed output is never held in full.
+        private static void writeParallel(final JsonWriter out, final int size, final RangeWriter items)
+        {
+            Deque<CompletableFuture<String>> chunks = new ArrayDeque<>();
+            String separator = "[ ";
+            for (int start = 0; start < size; start += ChunkSize)
+            {
+                int first = start;
+                int last = Math.min(size, start + ChunkSize);
+                chunks.add(CompletableFuture.supplyAsync(() -> writeChunk(first, last, items), out._executor));
+                if (chunks.size() > out._parallelism * 2)
                 {
-                    sb.append("{ \"").append(((Map.Entry)entry).getKey()).append("\": ");
-                    writeJsonValue(sb, ((Map.Entry)entry).getValue()).append(" }, "); }
-            });
+                    out.append(separator).append(join(chunks.poll()));
+                    separator = ", ";
+                }
+            }
+            while (!chunks.isEmpty())
+            {
+                out.append(separator).append(join(chunks.poll()));
+                separator = ", ";
+            }
+            out.append(" ]");
         }
 
-        private static void writeJsonArray(final StringBuilder sb, final Runnable runnable)
+        private static String writeChunk(final int first, final int last, final RangeWriter items)
         {
-            sb.append("[ ");
-            runnable.run();
-            removeExtraComma(sb).append("]");
+            StringJsonWriter chunk = StringJsonWriter.acquire(null);
+            try
+            {
+                items.write(chunk, first, last);
+                return chunk.toString();
+            }
+            finally
+            {
+                chunk.release(null);
+            }
         }
 
-        private static StringBuilder removeExtraComma(final StringBuilder sb)
+        private static void writeMap(final JsonWriter out, final Object map)
         {
-            int lastCommaIndex = sb.lastIndexOf(",");
-            return lastCommaIndex != sb.length() - 2 ? sb : sb.deleteCharAt(lastCommaIndex);
+            out.append("[");
+            String separator = " { ";
+            for (Object entry : ((Map)map).entrySet())
+            {
+                out.append(separator).appendQuoted(String.valueOf(((Map.Entry)entry).getKey())).append(": ");
+                writeJsonValue(out, ((Map.Entry)entry).getValue()).append(" }");
+                separator = ", { ";
+            }
+            out.append(" ]");
         }
     }
 }
@@ -0,0 +1,226 @@
+package io.theo.json;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// Generates a Json.Adapter for every class annotated with @Json.Compiled.
+// Adapters access fields and constructors directly, so they cover the same public fields as the reflection path,
+// in the same order, but require them to be non-final and the class to have a non-private no-arg constructor.
+// Enable with: javac -processorpath <Json classes> -processor io.theo.json.JsonCompiledProcessor
+@SupportedAnnotationTypes("io.theo.json.Json.Compiled")
+public final class JsonCompiledProcessor extends AbstractProcessor
+{
+    private static final String AdapterSuffix = "_JsonAdapter";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion()
+    {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv)
+    {
+        for (TypeElement annotation : annotations)
+            for (TypeElement type : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(annotation)))
+                if (isSupported(type))
+                    generateAdapter(type);
+        return true;
+    }
+
+    private boolean isSupported(final TypeElement type)
+    {
+        boolean isSupported = true;
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT))
+            isSupported = error(type, "@Json.Compiled is only supported on concrete classes.");
+        if (type.getModifiers().contains(Modifier.PRIVATE)
+                || type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC))
+            isSupported = error(type, "@Json.Compiled classes must be top-level or static nested classes, and not private.");
+        if (ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                .noneMatch(x -> x.getParameters().isEmpty() && !x.getModifiers().contains(Modifier.PRIVATE)))
+            isSupported = error(type, "@Json.Compiled classes require a non-private no-arg constructor.");
+        // The same fields as Json reads through reflection: private ones of the class itself, and public ones, inherited or not
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements()))
+        {
+            Set<Modifier> modifiers = field.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE) && !modifiers.contains(Modifier.STATIC))
+                isSupported = error(field, "@Json.Compiled classes cannot have private fields.");
+        }
+        for (VariableElement field : getPublicFields(type))
+        {
+            Set<Modifier> modifiers = field.getModifiers();
+            if (modifiers.contains(Modifier.FINAL) && !modifiers.contains(Modifier.STATIC))
+                isSupported = error(field.getEnclosingElement() == type ? field : type,
+                        "@Json.Compiled classes cannot have final fields, including inherited ones: " + field.getSimpleName());
+        }
+        return isSupported;
+    }
+
+    private boolean error(final Element element, final String message)
+    {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+        return false;
+    }
+
+    // Mirrors Class.getFields: public fields of the class itself first, then those of its superclasses
+    private List<VariableElement> getPublicFields(final TypeElement type)
+    {
+        List<VariableElement> fields = new ArrayList<>();
+        for (TypeElement current = type; current != null; current = getSuperclass(current))
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements()))
+                if (field.getModifiers().contains(Modifier.PUBLIC))
+                    fields.add(field);
+        return fields;
+    }
+
+    private TypeElement getSuperclass(final TypeElement type)
+    {
+        TypeMirror superclass = type.getSuperclass();
+        return superclass.getKind() == TypeKind.DECLARED ? (TypeElement)((DeclaredType)superclass).asElement() : null;
+    }
+
+    private void generateAdapter(final TypeElement type)
+    {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String adapterName = binaryName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1) + AdapterSuffix;
+        String typeName = processingEnv.getTypeUtils().erasure(type.asType()).toString();
+        List<VariableElement> fields = getPublicFields(type);
+        List<VariableElement> readableFields = new ArrayList<>();
+        for (VariableElement field : fields)
+            if (!(field.getModifiers().contains(Modifier.STATIC) && field.getModifiers().contains(Modifier.FINAL)))
+                readableFields.add(field);
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty())
+            source.append("package ").append(packageName).append(";\n\n");
+        source.append("// Generated by ").append(getClass().getName()).append(" from ").append(typeName).append(". Do not edit.\n");
+        source.append("@SuppressWarnings({ \"unchecked\", \"rawtypes\" })\n");
+        source.append("public final class ").append(adapterName).append(" implements io.theo.json.Json.Adapter<").append(typeName).append(">\n{\n");
+        appendFieldNames(source, readableFields);
+        appendGenericTypes(source, readableFields);
+        source.append("    @Override\n    public String[] fieldNames()\n    {\n        return FieldNames;\n    }\n\n");
+        source.append("    @Override\n    public ").append(typeName).append(" newInstance()\n    {\n        return new ").append(typeName).append("();\n    }\n\n");
+        appendWrite(source, typeName, fields);
+        appendRead(source, typeName, readableFields);
+        source.append("}\n");
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(packageName.isEmpty() ? adapterName : packageName + "." + adapterName, type).openWriter())
+        {
+            writer.write(source.toString());
+        }
+        catch (IOException e)
+        {
+            error(type, "Unable to write Json adapter: " + e.getMessage());
+        }
+    }
+
+    private void appendFieldNames(final StringBuilder source, final List<VariableElement> fields)
+    {
+        source.append("    private static final String[] FieldNames = new String[] {");
+        for (int i = 0; i < fields.size(); i++)
+            source.append(i == 0 ? " \"" : ", \"").append(fields.get(i).getSimpleName()).append("\"");
+        source.append(" };\n");
+    }
+
+    private void appendGenericTypes(final StringBuilder source, final List<VariableElement> fields)
+    {
+        for (int i = 0; i < fields.size(); i++)
+            if (isGeneric(fields.get(i).asType()))
+                source.append("    private static final java.lang.reflect.Type Type").append(i)
+                        .append(" = new io.theo.json.Json.TypeOf<").append(fields.get(i).asType()).append(">() {}.getType();\n");
+        source.append("\n");
+    }
+
+    private void appendWrite(final StringBuilder source, final String typeName, final List<VariableElement> fields)
+    {
+        source.append("    @Override\n    public void write(final io.theo.json.Json.Output out, final ").append(typeName).append(" obj)\n    {\n");
+        if (fields.isEmpty())
+            source.append("        out.raw(\"{ }\");\n");
+        for (int i = 0; i < fields.size(); i++)
+        {
+            VariableElement field = fields.get(i);
+            source.append(i == 0 ? "        out.raw(\"{ \\\"" : "            .raw(\", \\\"").append(field.getSimpleName()).append("\\\": \")");
+            source.append(".value(").append(needsBoxing(field.asType()) ? "(Object)" : "").append(getFieldAccess(typeName, field)).append(")\n");
+        }
+        if (!fields.isEmpty())
+            source.append("            .raw(\" }\");\n");
+        source.append("    }\n\n");
+    }
+
+    private void appendRead(final StringBuilder source, final String typeName, final List<VariableElement> fields)
+    {
+        source.append("    @Override\n    public void read(final io.theo.json.Json.Input in, final ").append(typeName).append(" obj, final int field)\n    {\n");
+        source.append("        switch (field)\n        {\n");
+        for (int i = 0; i < fields.size(); i++)
+        {
+            VariableElement field = fields.get(i);
+            source.append("            case ").append(i).append(":\n");
+            source.append("                ").append(getFieldAccess(typeName, field)).append(" = ").append(getReadExpression(field.asType(), i)).append(";\n");
+            source.append("                return;\n");
+        }
+        source.append("        }\n    }\n");
+    }
+
+    private String getFieldAccess(final String typeName, final VariableElement field)
+    {
+        return (field.getModifiers().contains(Modifier.STATIC) ? typeName : "obj") + "." + field.getSimpleName();
+    }
+
+    private String getReadExpression(final TypeMirror type, final int index)
+    {
+        switch (type.getKind())
+        {
+            case INT: return "in.readInt()";
+            case LONG: return "in.readLong()";
+            case FLOAT: return "in.readFloat()";
+            case DOUBLE: return "in.readDouble()";
+            case BOOLEAN: return "in.readBoolean()";
+            case BYTE: return "in.readByte()";
+            default:
+        }
+        if (type.getKind().isPrimitive())
+            return "(" + processingEnv.getTypeUtils().boxedClass((PrimitiveType)type).getQualifiedName() + ")in.read(" + type + ".class)";
+        String erasure = processingEnv.getTypeUtils().erasure(type).toString();
+        return "(" + erasure + ")in.read(" + (isGeneric(type) ? "Type" + index : erasure + ".class") + ")";
+    }
+
+    // Same as the reflection path, which writes these through their boxed classes
+    private boolean needsBoxing(final TypeMirror type)
+    {
+        return type.getKind() == TypeKind.SHORT || type.getKind() == TypeKind.CHAR;
+    }
+
+    // Generic types are captured with Json.TypeOf, unless they refer to type variables that only exist per instance
+    private boolean isGeneric(final TypeMirror type)
+    {
+        return type.getKind() == TypeKind.DECLARED
+                && !((DeclaredType)type).getTypeArguments().isEmpty()
+                && !hasTypeVariables(type);
+    }
+
+    private boolean hasTypeVariables(final TypeMirror type)
+    {
+        if (type.getKind() == TypeKind.TYPEVAR || type.getKind() == TypeKind.WILDCARD)
+            return true;
+        if (type.getKind() == TypeKind.ARRAY)
+            return hasTypeVariables(((ArrayType)type).getComponentType());
+        return type.getKind() == TypeKind.DECLARED
+                && ((DeclaredType)type).getTypeArguments().stream().anyMatch(this::hasTypeVariables);
+    }
+}
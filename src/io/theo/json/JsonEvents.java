@@ -0,0 +1,62 @@
+package io.theo.json;
+
+// Flight Recorder events for encoding and decoding whole documents, recorded by JsonFlightRecorder.
+// jdk.jfr is missing from Java 8 JVMs before 8u262, so no reference to it is compiled into Json or this class.
+// The recorder is only built where the API exists, and loaded by name once it has been found at runtime.
+// Without it, IsAvailable is false and Json runs unchanged.
+final class JsonEvents
+{
+    private static final Recorder _recorder = loadRecorder();
+    static final boolean IsAvailable = _recorder != null;
+
+    private JsonEvents()
+    {
+    }
+
+    private static Recorder loadRecorder()
+    {
+        try
+        {
+            ClassLoader loader = JsonEvents.class.getClassLoader();
+            Class.forName("jdk.jfr.Event", false, loader);
+            return (Recorder)Class.forName("io.theo.json.JsonFlightRecorder", true, loader)
+                    .getDeclaredConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException | LinkageError e)
+        {
+            return null;
+        }
+    }
+
+    // Returns the started event, or null while no recording has the event enabled. Only called while IsAvailable.
+    static Object beginEncode()
+    {
+        return _recorder.beginEncode();
+    }
+
+    static void commitEncode(final Object started, final Object root, final long size)
+    {
+        _recorder.commitEncode(started, root, size);
+    }
+
+    static Object beginDecode()
+    {
+        return _recorder.beginDecode();
+    }
+
+    static void commitDecode(final Object started, final Class<?> rootType, final long size, final Object value)
+    {
+        _recorder.commitDecode(started, rootType, size, value);
+    }
+
+    abstract static class Recorder
+    {
+        abstract Object beginEncode();
+
+        abstract void commitEncode(Object started, Object root, long size);
+
+        abstract Object beginDecode();
+
+        abstract void commitDecode(Object started, Class<?> rootType, long size, Object value);
+    }
+}
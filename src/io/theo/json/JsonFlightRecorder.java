@@ -0,0 +1,184 @@
+package io.theo.json;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.SettingControl;
+import jdk.jfr.SettingDefinition;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+// Flight Recorder events for encoding and decoding whole documents. They are recorded when a document takes longer than
+// the event's threshold, 20 ms by default, and is at least minSize chars or bytes long, 0 by default. Both are settings
+// of the recording, set like those of built-in events, such as "io.theo.json.Decode#minSize" = "1000000".
+// This is the only class that refers to jdk.jfr. The build compiles it only where the API exists, and JsonEvents loads it by name.
+final class JsonFlightRecorder extends JsonEvents.Recorder
+{
+    // Whether an event type is enabled does not depend on the instance, so these answer it without allocating events
+    private final EncodeEvent _encodeProbe = new EncodeEvent();
+    private final DecodeEvent _decodeProbe = new DecodeEvent();
+
+    // Returns the started event, or null while no recording has the event enabled
+    @Override
+    Object beginEncode()
+    {
+        if (!_encodeProbe.isEnabled())
+            return null;
+        EncodeEvent event = new EncodeEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    void commitEncode(final Object started, final Object root, final long size)
+    {
+        EncodeEvent event = (EncodeEvent)started;
+        event.end();
+        event.rootType = root == null ? null : root.getClass();
+        event.size = size;
+        event.elementCount = countElements(root);
+        if (event.shouldCommit())
+            event.commit();
+    }
+
+    @Override
+    Object beginDecode()
+    {
+        if (!_decodeProbe.isEnabled())
+            return null;
+        DecodeEvent event = new DecodeEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    void commitDecode(final Object started, final Class<?> rootType, final long size, final Object value)
+    {
+        DecodeEvent event = (DecodeEvent)started;
+        event.end();
+        event.rootType = rootType;
+        event.size = size;
+        event.elementCount = countElements(value);
+        if (event.shouldCommit())
+            event.commit();
+    }
+
+    // Elements of root lists, arrays and maps. Any other value is one element.
+    private static int countElements(final Object value)
+    {
+        if (value == null)
+            return 0;
+        if (value instanceof Collection)
+            return ((Collection<?>)value).size();
+        if (value instanceof Map)
+            return ((Map<?, ?>)value).size();
+        if (value.getClass().isArray())
+            return Array.getLength(value);
+        return 1;
+    }
+
+    @Name("io.theo.json.Encode")
+    @Label("Json Encode")
+    @Description("A document written by toJsonString or writeTo")
+    @Category("Json")
+    @Threshold("20 ms")
+    @StackTrace(true)
+    static final class EncodeEvent extends Event
+    {
+        @Label("Root Type")
+        Class<?> rootType;
+
+        @Label("Size")
+        @Description("Chars written to a String, or UTF-8 bytes written to a stream")
+        @DataAmount
+        long size;
+
+        @Label("Elements")
+        @Description("Elements of a root list, array or map, or else 1")
+        int elementCount;
+
+        @Label("Minimum Size")
+        @Name("minSize")
+        @SettingDefinition
+        boolean minSize(final MinSizeSetting setting)
+        {
+            return size >= setting._minSize;
+        }
+    }
+
+    @Name("io.theo.json.Decode")
+    @Label("Json Decode")
+    @Description("A document read by toObj, readObj, toList, readList or lines. For lists, the root type is the item type.")
+    @Category("Json")
+    @Threshold("20 ms")
+    @StackTrace(true)
+    static final class DecodeEvent extends Event
+    {
+        @Label("Root Type")
+        Class<?> rootType;
+
+        @Label("Size")
+        @Description("Chars read from a String, or UTF-8 bytes read from bytes or a stream")
+        @DataAmount
+        long size;
+
+        @Label("Elements")
+        @Description("Elements of a root list, array or map, or else 1")
+        int elementCount;
+
+        @Label("Minimum Size")
+        @Name("minSize")
+        @SettingDefinition
+        boolean minSize(final MinSizeSetting setting)
+        {
+            return size >= setting._minSize;
+        }
+    }
+
+    // A size in chars or bytes, as a plain number. When recordings disagree, the smallest size applies.
+    public static final class MinSizeSetting extends SettingControl
+    {
+        private long _minSize;
+
+        @Override
+        public String combine(final Set<String> values)
+        {
+            long min = Long.MAX_VALUE;
+            for (String value : values)
+                min = Math.min(min, parse(value));
+            return values.isEmpty() ? "0" : Long.toString(min);
+        }
+
+        @Override
+        public void setValue(final String value)
+        {
+            _minSize = parse(value);
+        }
+
+        @Override
+        public String getValue()
+        {
+            return Long.toString(_minSize);
+        }
+
+        private static long parse(final String value)
+        {
+            try
+            {
+                return Math.max(0, Long.parseLong(value.trim()));
+            }
+            catch (NumberFormatException e)
+            {
+                return 0;
+            }
+        }
+    }
+}
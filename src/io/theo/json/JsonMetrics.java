@@ -0,0 +1,263 @@
+package io.theo.json;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Counters and latency histograms for encoding and decoding, per root class, and hit counts for the internal caches.
+// Off unless the JVM is started with -Dio.theo.json.metrics=true. The switch is a static final, so while it is off
+// the JIT removes the recording code from the hot paths entirely. Exporters read the metrics again on each scrape.
+public final class JsonMetrics
+{
+    static final boolean IsEnabled = Boolean.getBoolean("io.theo.json.metrics");
+
+    // Metrics are attached to each class through ClassValue, like Json's own metadata, and listed for getTypeMetrics
+    // in a map with weak keys, so that neither keeps the classes of redeployed applications, or their loaders, alive.
+    // Racing first recordings of a class agree on one instance through the list.
+    private static final Map<Class<?>, TypeMetrics> _listedTypes = new WeakHashMap<>();
+    private static final ClassValue<TypeMetrics> _types = new ClassValue<TypeMetrics>()
+    {
+        @Override
+        protected TypeMetrics computeValue(final Class<?> type)
+        {
+            synchronized (_listedTypes)
+            {
+                return _listedTypes.computeIfAbsent(type, x -> new TypeMetrics());
+            }
+        }
+    };
+    private static final Map<Cache, CacheMetrics> _caches;
+
+    static
+    {
+        Map<Cache, CacheMetrics> caches = new EnumMap<>(Cache.class);
+        for (Cache cache : Cache.values())
+            caches.put(cache, new CacheMetrics());
+        _caches = Collections.unmodifiableMap(caches);
+    }
+
+    private JsonMetrics()
+    {
+    }
+
+    public static boolean isEnabled()
+    {
+        return IsEnabled;
+    }
+
+    // Root classes of toJsonString, writeTo, toObj, readObj and lines, and the item classes of toList and readList.
+    // Instances created are counted under the class of each object created, root or not.
+    // A snapshot of the classes recorded so far, whose metrics keep counting.
+    public static Map<Class<?>, TypeMetrics> getTypeMetrics()
+    {
+        synchronized (_listedTypes)
+        {
+            return Collections.unmodifiableMap(new HashMap<>(_listedTypes));
+        }
+    }
+
+    public static Map<Cache, CacheMetrics> getCacheMetrics()
+    {
+        return _caches;
+    }
+
+    // Recordings racing with a reset may count towards the metrics it discards
+    public static void reset()
+    {
+        synchronized (_listedTypes)
+        {
+            _listedTypes.keySet().forEach(_types::remove);
+            _listedTypes.clear();
+        }
+        _caches.values().forEach(CacheMetrics::reset);
+    }
+
+    static void recordEncode(final Object root, final long size, final long nanos)
+    {
+        if (root == null)
+            return;
+        TypeMetrics metrics = getTypeMetrics(root.getClass());
+        metrics._encodedDocuments.increment();
+        metrics._encodedSize.add(size);
+        metrics._encodeLatency.record(nanos);
+    }
+
+    static void recordDecode(final Class<?> type, final long size, final long nanos)
+    {
+        TypeMetrics metrics = getTypeMetrics(type);
+        metrics._decodedDocuments.increment();
+        metrics._decodedSize.add(size);
+        metrics._decodeLatency.record(nanos);
+    }
+
+    static void recordInstance(final Class<?> type)
+    {
+        getTypeMetrics(type)._instancesCreated.increment();
+    }
+
+    static void recordLookup(final Cache cache)
+    {
+        _caches.get(cache)._lookups.increment();
+    }
+
+    static void recordMiss(final Cache cache)
+    {
+        _caches.get(cache)._misses.increment();
+    }
+
+    private static TypeMetrics getTypeMetrics(final Class<?> type)
+    {
+        return _types.get(type);
+    }
+
+    public enum Cache
+    {
+        // Per class metadata, attached to each Class
+        Metadata,
+        // The public and private fields of a class
+        Fields,
+        // The constructors used to create instances without calling any constructor of the class itself
+        Constructors,
+        // The serialization plan of a class
+        Writers,
+        // The deserialization plan of a class
+        Readers,
+        // The compiled decoder of each class, parameterized type and generic array type
+        Decoders,
+        // Decoded strings, while deduplication is on through Json.setStringCacheSize
+        Strings,
+    }
+
+    // Sizes are counted in chars for String input and output, and in bytes for UTF-8 input and output
+    public static final class TypeMetrics
+    {
+        private final LongAdder _encodedDocuments = new LongAdder();
+        private final LongAdder _encodedSize = new LongAdder();
+        private final Histogram _encodeLatency = new Histogram();
+        private final LongAdder _decodedDocuments = new LongAdder();
+        private final LongAdder _decodedSize = new LongAdder();
+        private final Histogram _decodeLatency = new Histogram();
+        private final LongAdder _instancesCreated = new LongAdder();
+
+        private TypeMetrics()
+        {
+        }
+
+        public long getEncodedDocuments()
+        {
+            return _encodedDocuments.sum();
+        }
+
+        public long getEncodedSize()
+        {
+            return _encodedSize.sum();
+        }
+
+        public Histogram getEncodeLatency()
+        {
+            return _encodeLatency;
+        }
+
+        public long getDecodedDocuments()
+        {
+            return _decodedDocuments.sum();
+        }
+
+        public long getDecodedSize()
+        {
+            return _decodedSize.sum();
+        }
+
+        public Histogram getDecodeLatency()
+        {
+            return _decodeLatency;
+        }
+
+        public long getInstancesCreated()
+        {
+            return _instancesCreated.sum();
+        }
+    }
+
+    public static final class CacheMetrics
+    {
+        private final LongAdder _lookups = new LongAdder();
+        private final LongAdder _misses = new LongAdder();
+
+        private CacheMetrics()
+        {
+        }
+
+        // Racing threads may count a hit before the miss that filled the entry
+        public long getHits()
+        {
+            return Math.max(0, _lookups.sum() - _misses.sum());
+        }
+
+        public long getMisses()
+        {
+            return _misses.sum();
+        }
+
+        private void reset()
+        {
+            _lookups.reset();
+            _misses.reset();
+        }
+    }
+
+    // Latencies in nanoseconds, in buckets whose upper bounds double from 1024 ns, about a microsecond, up to 2^32 ns, about 4.3 s.
+    // The last bucket holds everything slower.
+    public static final class Histogram
+    {
+        public static final int BucketCount = 24;
+        private static final int FirstBucketBits = 10;
+
+        private final LongAdder[] _buckets = new LongAdder[BucketCount];
+        private final LongAdder _sum = new LongAdder();
+
+        private Histogram()
+        {
+            for (int i = 0; i < BucketCount; i++)
+                _buckets[i] = new LongAdder();
+        }
+
+        // Exclusive upper bound of the bucket, or Long.MAX_VALUE for the last one
+        public static long getUpperBound(final int bucket)
+        {
+            return bucket == BucketCount - 1 ? Long.MAX_VALUE : 1L << (FirstBucketBits + bucket);
+        }
+
+        public long getCount()
+        {
+            long count = 0;
+            for (LongAdder bucket : _buckets)
+                count += bucket.sum();
+            return count;
+        }
+
+        public long getSum()
+        {
+            return _sum.sum();
+        }
+
+        // Counts per bucket, not cumulative
+        public long[] getBucketCounts()
+        {
+            long[] counts = new long[BucketCount];
+            for (int i = 0; i < BucketCount; i++)
+                counts[i] = _buckets[i].sum();
+            return counts;
+        }
+
+        private void record(final long nanos)
+        {
+            int bucket = 64 - Long.numberOfLeadingZeros(nanos) - FirstBucketBits;
+            _buckets[Math.max(0, Math.min(BucketCount - 1, bucket))].increment();
+            _sum.add(nanos);
+        }
+    }
+}
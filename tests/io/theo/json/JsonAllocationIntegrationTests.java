@@ -0,0 +1,174 @@
+package io.theo.json;
+
+import io.theo.json.testObjects.AllocationBaseline;
+import io.theo.json.testObjects.PerformanceTester;
+import io.theo.json.testObjects.SimpleStringListValueObject;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+// Run with: ant allocationTest (-Dallocation.update=true re-records tests/allocation-baseline.properties)
+public class JsonAllocationIntegrationTests
+{
+    private static final int NumTestOps = 20000;
+    private static final int NumWarmUps = 20000;
+    private static final AllocationBaseline Baseline = AllocationBaseline.fromSystemProperties();
+    private static final String SimplePojoJson = "{ \"Value\": [ \"JC Denton\", \"Adam Jensen\", \"Paul Denton\", \"David Sarif\" ] }";
+
+    private static volatile Object _sink;
+
+    @AfterClass
+    public static void saveBaseline() throws IOException
+    {
+        Baseline.save();
+    }
+
+    @Test
+    public void JsonSerializer_AllocationSimplePOJO_WithinBaseline()
+    {
+        SimpleStringListValueObject obj = new SimpleStringListValueObject(Arrays.asList("JC Denton", "Adam Jensen", "Paul Denton", "David Sarif"));
+
+        assertWithinBaseline("SerializeSimplePojo", () -> Json.toJsonString(obj));
+    }
+
+    @Test
+    public void JsonSerializer_AllocationLargeList_WithinBaseline()
+    {
+        List<String> items = new ArrayList<>();
+        Random random = new Random(42);
+        IntStream.range(0, 100).forEach(x -> items.add(new UUID(random.nextLong(), random.nextLong()).toString()));
+
+        assertWithinBaseline("SerializeStringList100", () -> Json.toJsonString(items));
+    }
+
+    @Test
+    public void JsonSerializer_AllocationLargeStringMap_WithinBaseline()
+    {
+        Map<String, String> items = new HashMap<>();
+        Random random = new Random(42);
+        IntStream.range(0, 100).forEach(x -> items.put(Integer.toString(x), new UUID(random.nextLong(), random.nextLong()).toString()));
+
+        assertWithinBaseline("SerializeStringMap100", () -> Json.toJsonString(items));
+    }
+
+    @Test
+    public void JsonSerializer_AllocationIntArray_WithinBaseline()
+    {
+        int[] items = new Random(42).ints(1000).toArray();
+
+        assertWithinBaseline("SerializeIntArray1000", () -> Json.toJsonString(items));
+    }
+
+    @Test
+    public void JsonSerializer_AllocationWriteToOutputStream_WithinBaseline()
+    {
+        SimpleStringListValueObject obj = new SimpleStringListValueObject(Arrays.asList("JC Denton", "Adam Jensen", "Paul Denton", "David Sarif"));
+        OutputStream out = new OutputStream()
+        {
+            @Override
+            public void write(final int b)
+            {
+            }
+
+            @Override
+            public void write(final byte[] bytes, final int offset, final int length)
+            {
+            }
+        };
+
+        assertWithinBaseline("WriteToOutputStreamSimplePojo", () -> {
+            try
+            {
+                Json.writeTo(obj, out);
+                return out;
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Test
+    public void JsonSerializer_AllocationWriteToWriter_WithinBaseline()
+    {
+        SimpleStringListValueObject obj = new SimpleStringListValueObject(Arrays.asList("JC Denton", "Adam Jensen", "Paul Denton", "David Sarif"));
+        Writer writer = new Writer()
+        {
+            @Override
+            public void write(final char[] chars, final int offset, final int length)
+            {
+            }
+
+            @Override
+            public void flush()
+            {
+            }
+
+            @Override
+            public void close()
+            {
+            }
+        };
+
+        assertWithinBaseline("WriteToWriterSimplePojo", () -> {
+            try
+            {
+                Json.writeTo(obj, writer);
+                return writer;
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Test
+    public void JsonDeserializer_AllocationSimplePOJO_WithinBaseline()
+    {
+        assertWithinBaseline("DeserializeSimplePojo", () -> Json.toObj(SimpleStringListValueObject.class, SimplePojoJson));
+    }
+
+    @Test
+    public void JsonDeserializer_AllocationUtf8SimplePOJO_WithinBaseline()
+    {
+        byte[] json = SimplePojoJson.getBytes(StandardCharsets.UTF_8);
+
+        assertWithinBaseline("DeserializeUtf8SimplePojo", () -> Json.toObj(SimpleStringListValueObject.class, json, 0, json.length));
+    }
+
+    @Test
+    public void JsonDeserializer_AllocationLargeList_WithinBaseline()
+    {
+        List<String> items = new ArrayList<>();
+        Random random = new Random(42);
+        IntStream.range(0, 100).forEach(x -> items.add(new UUID(random.nextLong(), random.nextLong()).toString()));
+        String json = Json.toJsonString(items);
+
+        assertWithinBaseline("DeserializeStringList100", () -> Json.toList(String.class, json));
+    }
+
+    @Test
+    public void JsonDeserializer_AllocationIntArray_WithinBaseline()
+    {
+        String json = Json.toJsonString(new Random(42).ints(1000).toArray());
+
+        assertWithinBaseline("DeserializeIntArray1000", () -> Json.toObj(int[].class, json));
+    }
+
+    private static void assertWithinBaseline(final String scenario, final Supplier<Object> operation)
+    {
+        long bytesPerOp = PerformanceTester.getAllocatedBytesPerOp(NumTestOps, NumWarmUps, () -> _sink = operation.get());
+
+        Baseline.check(scenario, bytesPerOp);
+    }
+}
@@ -0,0 +1,125 @@
+package io.theo.json;
+
+import io.theo.json.testObjects.*;
+import org.junit.*;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class JsonCompiledTests
+{
+    private static final String CompiledJson = "{ \"intValue\": 1, \"longValue\": 2, \"dblValue\": 3.5, \"boolValue\": true, " +
+            "\"strValue\": \"Text\", \"boxedValue\": 4, \"enumValue\": \"Value2\", \"listValue\": [ \"a\", \"b\" ], " +
+            "\"mapValue\": [ { \"Key\": 5 } ], \"objValue\": { \"Value1\": 6, \"Value2\": 7 } }";
+
+    @Test
+    public void JsonCompiled_AnnotatedClass_AdapterGenerated() throws Exception
+    {
+        Class<?> adapterType = Class.forName(CompiledValueObject.class.getName() + "_JsonAdapter");
+
+        Assert.assertTrue(Json.Adapter.class.isAssignableFrom(adapterType));
+    }
+
+    @Test
+    public void JsonCompiled_ToObj_CreatedThroughAdapter()
+    {
+        CompiledValueObject obj = Json.toObj(CompiledValueObject.class, "{ \"intValue\": 1 }");
+
+        Assert.assertEquals(1, obj.intValue);
+        Assert.assertEquals("Constructed", obj.strValue);
+    }
+
+    @Test
+    public void JsonCompiled_ToObj_IsCorrect()
+    {
+        CompiledValueObject obj = Json.toObj(CompiledValueObject.class, CompiledJson);
+
+        Assert.assertEquals(1, obj.intValue);
+        Assert.assertEquals(2, obj.longValue);
+        Assert.assertEquals(3.5, obj.dblValue, 0);
+        Assert.assertEquals(true, obj.boolValue);
+        Assert.assertEquals("Text", obj.strValue);
+        Assert.assertEquals(4, (int)obj.boxedValue);
+        Assert.assertEquals(SampleEnum.Value2, obj.enumValue);
+        Assert.assertEquals(Arrays.asList("a", "b"), obj.listValue);
+        Assert.assertEquals(Collections.singletonMap("Key", 5), obj.mapValue);
+        Assert.assertEquals(6, obj.objValue.Value1);
+        Assert.assertEquals(7, (int)obj.objValue.Value2);
+    }
+
+    @Test
+    public void JsonCompiled_ToJsonString_IsCorrect()
+    {
+        String json = Json.toJsonString(Json.toObj(CompiledValueObject.class, CompiledJson));
+
+        Assert.assertEquals(CompiledJson, json);
+    }
+
+    @Test
+    public void JsonCompiled_InvalidPrimitiveValues_FieldsNotSet()
+    {
+        CompiledValueObject obj = Json.toObj(CompiledValueObject.class,
+                "{ \"intValue\": null, \"longValue\": \"abc\", \"Unknown\": [ 1 ], \"dblValue\": 2.5 }");
+
+        Assert.assertEquals(0, obj.intValue);
+        Assert.assertEquals(0, obj.longValue);
+        Assert.assertEquals(2.5, obj.dblValue, 0);
+    }
+
+    @Test
+    public void JsonCompiled_InputContainsNoElementsMatchingObject_ThrowsException()
+    {
+        ExceptionAssert.assertThrows(RuntimeException.class, () -> Json.toObj(CompiledValueObject.class, "{ \"abc\": 123 }"));
+    }
+
+    @Test
+    public void JsonCompiled_InheritedFinalField_ReportedByProcessor() throws IOException
+    {
+        List<Diagnostic<? extends JavaFileObject>> errors = compileWithProcessor(
+                "public class FinalFieldBase { public final int Value = 1; }",
+                "@io.theo.json.Json.Compiled public class FinalFieldChild extends FinalFieldBase { }");
+
+        Assert.assertEquals(1, errors.size());
+        Assert.assertTrue(errors.get(0).getMessage(null).contains("cannot have final fields"));
+        Assert.assertTrue(errors.get(0).getSource().getName().endsWith("FinalFieldChild.java"));
+    }
+
+    // Compiles each source, a public class named after its file, and returns the errors reported
+    private static List<Diagnostic<? extends JavaFileObject>> compileWithProcessor(final String... sources) throws IOException
+    {
+        Path dir = Files.createTempDirectory("compiled");
+        List<File> files = new ArrayList<>();
+        for (String source : sources)
+        {
+            String name = source.replaceFirst("(?s).*public class (\\w+).*", "$1");
+            files.add(Files.write(dir.resolve(name + ".java"), source.getBytes(StandardCharsets.UTF_8)).toFile());
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8))
+        {
+            compiler.getTask(null, fileManager, diagnostics,
+                    Arrays.asList("-classpath", System.getProperty("java.class.path"), "-d", dir.toString(), "-s", dir.toString(),
+                            "-processor", JsonCompiledProcessor.class.getName()),
+                    null, fileManager.getJavaFileObjectsFromFiles(files)).call();
+        }
+        List<Diagnostic<? extends JavaFileObject>> errors = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics())
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                errors.add(diagnostic);
+        return errors;
+    }
+}
@@ -0,0 +1,197 @@
+package io.theo.json;
+
+import io.theo.json.testObjects.*;
+import org.junit.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class JsonConcurrencyTests
+{
+    private static final int NumThreads = 32;
+    private static final int NumRounds = 20;
+
+    private static final Map<Class, String> _sampleJson = new LinkedHashMap<>();
+
+    static
+    {
+        _sampleJson.put(SimpleStringValueObject.class, "{ \"Value\": \"Pikachu\" }");
+        _sampleJson.put(NumericTypesObject.class, "{ \"intValue\": 1, \"longValue\": 2, \"floatValue\": 3.1, \"dblValue\": 4.5 }");
+        _sampleJson.put(SimpleSubObjectValueObject.class, "{ \"Value\": { \"Value1\": 1, \"Value2\": 3 } }");
+        _sampleJson.put(SimpleStringListValueObject.class, "{ \"Value\": [ \"JC Denton\", \"Adam Jensen\" ] }");
+        _sampleJson.put(SimpleStringMapValueObject.class, "{ \"Value\": [ { \"Hello\": \"World\" } ] }");
+        _sampleJson.put(SimplePrivateFieldClass.class, "{ \"value\": \"America\" }");
+        _sampleJson.put(IntegerArrayValueObject.class, "{ \"Value1\": [ 4, 3, 2, 1 ], \"Value2\": [ 4 ] }");
+        _sampleJson.put(SimpleEnumValueObject.class, "{ \"Value\": \"Value2\" }");
+        _sampleJson.put(RecursiveNodeObject.class, "{ \"Name\": \"Root\", \"Child\": { \"Name\": \"Leaf\", \"Child\": null } }");
+    }
+
+    @Test
+    public void Json_ConcurrentFirstUseOfClasses_AllResultsCorrect() throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(NumThreads);
+        try
+        {
+            for (int round = 0; round < NumRounds; round++)
+                assertConcurrentRoundTrips(executor, new IsolatedClassLoader());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void Json_ClassLoaderNoLongerUsed_CanBeUnloaded() throws Exception
+    {
+        WeakReference<ClassLoader> loader = useIsolatedClassLoader();
+
+        for (int i = 0; i < 50 && loader.get() != null; i++)
+        {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        Assert.assertNull("Json metadata caches keep unused ClassLoaders alive.", loader.get());
+    }
+
+    // Decoders of List<T> and Map<String, T> must not be cached where List and Map, which are never unloaded, keep them
+    @Test
+    public void Json_ClassLoaderWithCustomTypeCollections_CanBeUnloaded() throws Exception
+    {
+        WeakReference<ClassLoader> loader = useIsolatedCollectionTypes();
+
+        for (int i = 0; i < 50 && loader.get() != null; i++)
+        {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        Assert.assertNull("Json decoder caches keep unused ClassLoaders alive.", loader.get());
+    }
+
+    // Metadata of classes that outlive the library, such as String, must not keep a redeployed copy of it alive
+    @Test
+    public void Json_RedeployedLibraryNoLongerUsed_CanBeUnloaded() throws Exception
+    {
+        WeakReference<ClassLoader> loader = readWithIsolatedLibrary();
+
+        for (int i = 0; i < 50 && loader.get() != null; i++)
+        {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        Assert.assertNull("Json metadata of shared classes keeps a redeployed library alive.", loader.get());
+    }
+
+    // Writers kept for reuse must not tie the long-lived threads of a server's pool to a redeployed copy of the library
+    @Test
+    public void Json_RedeployedLibraryAfterWriteOnLongLivedThread_CanBeUnloaded() throws Exception
+    {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            WeakReference<ClassLoader> loader = executor.submit(JsonConcurrencyTests::writeWithIsolatedLibrary).get();
+
+            for (int i = 0; i < 50 && loader.get() != null; i++)
+            {
+                System.gc();
+                Thread.sleep(20);
+            }
+
+            Assert.assertNull("Json writers kept for reuse keep a redeployed library alive.", loader.get());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private static WeakReference<ClassLoader> readWithIsolatedLibrary() throws Exception
+    {
+        ClassLoader loader = new IsolatedClassLoader(Json.class.getPackage().getName() + ".");
+        Class<?> json = loader.loadClass(Json.class.getName());
+        Class<?> type = loader.loadClass(SimpleStringListValueObject.class.getName());
+
+        Object obj = json.getMethod("toObj", Class.class, String.class).invoke(null, type, _sampleJson.get(SimpleStringListValueObject.class));
+        List<?> items = (List<?>)json.getMethod("toList", Class.class, String.class).invoke(null, String.class, "[ \"Pikachu\" ]");
+
+        Assert.assertNotEquals(Json.class, json);
+        Assert.assertEquals(type, obj.getClass());
+        Assert.assertEquals(Collections.singletonList("Pikachu"), items);
+        return new WeakReference<>(loader);
+    }
+
+    private static WeakReference<ClassLoader> writeWithIsolatedLibrary() throws Exception
+    {
+        ClassLoader loader = new IsolatedClassLoader(Json.class.getPackage().getName() + ".");
+        Class<?> json = loader.loadClass(Json.class.getName());
+        Object obj = loader.loadClass(SimpleStringValueObject.class.getName()).getConstructor(String.class).newInstance("Pikachu");
+        StringWriter writer = new StringWriter();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        String text = (String)json.getMethod("toJsonString", Object.class).invoke(null, obj);
+        json.getMethod("writeTo", Object.class, Writer.class).invoke(null, obj, writer);
+        json.getMethod("writeTo", Object.class, OutputStream.class).invoke(null, obj, out);
+
+        Assert.assertEquals(_sampleJson.get(SimpleStringValueObject.class), text);
+        Assert.assertEquals(text, writer.toString());
+        Assert.assertEquals(text, new String(out.toByteArray(), StandardCharsets.UTF_8));
+        return new WeakReference<>(loader);
+    }
+
+    private static WeakReference<ClassLoader> useIsolatedClassLoader() throws Exception
+    {
+        ClassLoader loader = new IsolatedClassLoader();
+        for (Map.Entry<Class, String> sample : _sampleJson.entrySet())
+        {
+            Class isolatedType = loader.loadClass(sample.getKey().getName());
+            Assert.assertEquals(sample.getValue(), Json.toJsonString(Json.toObj(isolatedType, sample.getValue())));
+        }
+        return new WeakReference<>(loader);
+    }
+
+    private static WeakReference<ClassLoader> useIsolatedCollectionTypes() throws Exception
+    {
+        ClassLoader loader = new IsolatedClassLoader();
+        Class<?> listType = loader.loadClass(CustomObjListValueObject.class.getName());
+        Class<?> mapType = loader.loadClass(CustomObjMapValueObject.class.getName());
+        String itemJson = "{ \"intValue\": 1, \"longValue\": 2, \"floatValue\": 3.1, \"dblValue\": 4.5 }";
+
+        Json.register(listType, mapType);
+        Json.toJsonString(Json.toObj(listType, "{ \"Value\": [ " + itemJson + " ] }"));
+        Json.toJsonString(Json.toObj(mapType, "{ \"Value\": { \"Item\": " + itemJson + " } }"));
+        List<?> items = Json.readObj(listType.getField("Value").getGenericType(), "[ " + itemJson + " ]");
+        Map<?, ?> map = Json.readObj(mapType.getField("Value").getGenericType(), "{ \"Item\": " + itemJson + " }");
+        Assert.assertEquals(items.get(0).getClass(), map.get("Item").getClass());
+        return new WeakReference<>(loader);
+    }
+
+    private static void assertConcurrentRoundTrips(final ExecutorService executor, final ClassLoader loader) throws Exception
+    {
+        CyclicBarrier barrier = new CyclicBarrier(NumThreads);
+        List<Future<List<String>>> results = new ArrayList<>();
+        for (int i = 0; i < NumThreads; i++)
+            results.add(executor.submit(() -> {
+                barrier.await();
+                List<String> outputs = new ArrayList<>();
+                for (Map.Entry<Class, String> sample : _sampleJson.entrySet())
+                {
+                    Class isolatedType = loader.loadClass(sample.getKey().getName());
+                    outputs.add(Json.toJsonString(Json.toObj(isolatedType, sample.getValue())));
+                }
+                return outputs;
+            }));
+
+        List<String> expected = new ArrayList<>(_sampleJson.values());
+        for (Future<List<String>> result : results)
+            Assert.assertEquals(expected, result.get(30, TimeUnit.SECONDS));
+    }
+}
@@ -3,9 +3,29 @@ package io.theo.json;
 import io.theo.json.testObjects.*;
 import org.junit.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 public class JsonDeserializerTests
 {
@@ -27,6 +47,50 @@ public class JsonDeserializerTests
         ExceptionAssert.assertThrows(RuntimeException.class, () -> Json.toObj(SimpleStringValueObject.class, "{ \"abc\": 123 }"));
     }
 
+    @Test
+    public void JsonDeserializer_InputUnterminated_ThrowsException()
+    {
+        ExceptionAssert.assertThrows(RuntimeException.class, () -> Json.toObj(SimpleStringValueObject.class, "{ \"Value\": \"abc\""));
+    }
+
+    @Test
+    public void JsonDeserializer_DataStringContainingDelimiters_IsCorrect()
+    {
+        SimpleStringValueObject obj = Json.toObj(SimpleStringValueObject.class,
+                "{ \"Value\": \"a, {b}: [c]\" }");
+
+        Assert.assertEquals("a, {b}: [c]", obj.Value);
+    }
+
+    @Test
+    public void JsonDeserializer_UnknownNestedElement_IsSkipped()
+    {
+        SimpleStringValueObject obj = Json.toObj(SimpleStringValueObject.class,
+                "{ \"Extra\": { \"a\": [ 1, { \"b\": \"]\" } ] }, \"Value\": \"Found\" }");
+
+        Assert.assertEquals("Found", obj.Value);
+    }
+
+    @Test
+    public void JsonDeserializer_DataDeeplyNestedObjects_IsCorrect()
+    {
+        StringBuilder json = new StringBuilder();
+        for (int i = 0; i < 100; i++)
+            json.append("{ \"Name\": \"Node").append(i).append("\", \"Child\": ");
+        json.append("null");
+        for (int i = 0; i < 100; i++)
+            json.append(" }");
+
+        RecursiveNodeObject obj = Json.toObj(RecursiveNodeObject.class, json.toString());
+
+        for (int i = 0; i < 100; i++)
+        {
+            Assert.assertEquals("Node" + i, obj.Name);
+            obj = obj.Child;
+        }
+        Assert.assertNull(obj);
+    }
+
     @Test
     public void JsonDeserializer_GetElementValue_IsCorrect()
     {
@@ -110,6 +174,116 @@ public class JsonDeserializerTests
         Assert.assertEquals("John Doe", obj);
     }
 
+    @Test
+    public void JsonDeserializer_EscapedString_IsUnescaped()
+    {
+        String obj = Json.toObj(String.class,
+                "\"Say \\\"hi\\\"\\\\n\\/\\b\\f\\n\\r\\t\\u00e9\\u00E9\\ud83d\\ude00\"");
+
+        Assert.assertEquals("Say \"hi\"\\n/\b\f\n\r\t\u00e9\u00e9\ud83d\ude00", obj);
+    }
+
+    @Test
+    public void JsonDeserializer_EscapedElementName_MatchesField()
+    {
+        SimpleStringValueObject obj = Json.toObj(SimpleStringValueObject.class, "{ \"Val\\u0075e\": \"Data\" }");
+
+        Assert.assertEquals("Data", obj.Value);
+    }
+
+    @Test
+    public void JsonDeserializer_EscapedStringFromStream_IsUnescaped() throws IOException
+    {
+        String json = "{ \"Value\": \"\\\"\u00e9\\u00e9\\\\\" }";
+
+        SimpleStringValueObject fromReader = Json.readObj(SimpleStringValueObject.class, new TrickleReader(json, 1, false));
+        SimpleStringValueObject fromStream = Json.readObj(SimpleStringValueObject.class, new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        Assert.assertEquals("\"\u00e9\u00e9\\", fromReader.Value);
+        Assert.assertEquals("\"\u00e9\u00e9\\", fromStream.Value);
+    }
+
+    @Test
+    public void JsonDeserializer_InvalidEscapeSequence_ThrowsException()
+    {
+        ExceptionAssert.assertThrows(RuntimeException.class, () -> Json.toObj(String.class, "\"a\\xb\""));
+        ExceptionAssert.assertThrows(RuntimeException.class, () -> Json.toObj(String.class, "\"a\\u12\""));
+    }
+
+    @Test
+    public void JsonDeserializer_EscapedStringRoundTrip_IsCorrect()
+    {
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++)
+        {
+            char[] chars = new char[random.nextInt(20)];
+            for (int j = 0; j < chars.length; j++)
+                chars[j] = (char)(random.nextBoolean() ? random.nextInt(0x80) : random.nextInt(0xD800));
+            String value = new String(chars);
+
+            Assert.assertEquals(value, Json.toObj(String.class, Json.toJsonString(value)));
+            Assert.assertEquals(Collections.singletonMap(value, value), Json.toObj(Map.class, Json.toJsonString(Collections.singletonMap(value, value))));
+        }
+    }
+
+    @Test
+    public void JsonDeserializer_StringCache_SharesShortStrings() throws IOException
+    {
+        String longValue = "A value that is too long to be worth caching";
+        String json = "[ { \"Value\": \"EUR\" }, { \"Value\": \"EUR\" }, { \"Value\": \"Z\\u00fcrich\" }, { \"Value\": \"Z\u00fcrich\" }, " +
+                "{ \"Value\": \"" + longValue + "\" }, { \"Value\": \"" + longValue + "\" } ]";
+        Json.setStringCacheSize(1024);
+        try
+        {
+            for (List<SimpleStringValueObject> items : Arrays.asList(
+                    Json.toList(SimpleStringValueObject.class, json),
+                    Json.readList(SimpleStringValueObject.class, new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)))))
+            {
+                Assert.assertEquals("EUR", items.get(0).Value);
+                Assert.assertSame(items.get(0).Value, items.get(1).Value);
+                Assert.assertEquals("Z\u00fcrich", items.get(2).Value);
+                Assert.assertSame(items.get(2).Value, items.get(3).Value);
+                Assert.assertEquals(longValue, items.get(4).Value);
+                Assert.assertNotSame(items.get(4).Value, items.get(5).Value);
+            }
+        }
+        finally
+        {
+            Json.setStringCacheSize(0);
+        }
+    }
+
+    @Test
+    public void JsonDeserializer_StringCacheMapKeys_AreShared()
+    {
+        String json = "[ { \"Value\": [ { \"Currency\": \"EUR\" } ] }, { \"Value\": [ { \"Currency\": \"USD\" } ] } ]";
+        Json.setStringCacheSize(16);
+        try
+        {
+            List<SimpleStringMapValueObject> items = Json.toList(SimpleStringMapValueObject.class, json);
+
+            Assert.assertSame(items.get(0).Value.keySet().iterator().next(), items.get(1).Value.keySet().iterator().next());
+        }
+        finally
+        {
+            Json.setStringCacheSize(0);
+        }
+    }
+
+    @Test
+    public void JsonDeserializer_StringCacheOff_AllocatesStrings()
+    {
+        List<SimpleStringValueObject> items = Json.toList(SimpleStringValueObject.class, "[ { \"Value\": \"EUR\" }, { \"Value\": \"EUR\" } ]");
+
+        Assert.assertNotSame(items.get(0).Value, items.get(1).Value);
+    }
+
+    @Test
+    public void JsonDeserializer_StringCacheInvalidSize_ThrowsException()
+    {
+        ExceptionAssert.assertThrows(RuntimeException.class, () -> Json.setStringCacheSize(-1));
+    }
+
     @Test
     public void JsonDeserializer_SingleValueArrayToJavaArray_IsCorrect()
     {
@@ -119,6 +293,68 @@ public class JsonDeserializerTests
         Assert.assertArrayEquals(new int[]{9, 8, 7, 6, 5}, obj);
     }
 
+    @Test
+    public void JsonDeserializer_PrimitiveArrays_IsCorrect()
+    {
+        int[] ints = IntStream.range(-50, 50).toArray();
+
+        Assert.assertArrayEquals(ints, Json.toObj(int[].class, Json.toJsonString(ints)));
+        Assert.assertArrayEquals(new long[] { Long.MIN_VALUE, -1234567890123456789L, 0, Long.MAX_VALUE },
+                Json.toObj(long[].class, "[ -9223372036854775808, -1234567890123456789, -0, 9223372036854775807 ]"));
+        Assert.assertArrayEquals(new double[] { 1.5, -2e-3, 7 }, Json.toObj(double[].class, "[1.5,-2e-3,7]"), 0);
+        Assert.assertArrayEquals(new float[] { 0.25f, 3 }, Json.toObj(float[].class, "[ 0.25, 3 ]"), 0);
+        Assert.assertTrue(Arrays.equals(new boolean[] { true, false }, Json.toObj(boolean[].class, "[ true, false ]")));
+        Assert.assertArrayEquals(new byte[] { -128, 127 }, Json.toObj(byte[].class, "[ -128, 127 ]"));
+        Assert.assertEquals(0, Json.toObj(int[].class, "[ ]").length);
+    }
+
+    @Test
+    public void JsonDeserializer_PrimitiveArrayInMemory_IsCorrect()
+    {
+        int[] ints = IntStream.range(0, 5000).toArray();
+        byte[] utf8 = Json.toJsonString(ints).getBytes(StandardCharsets.UTF_8);
+        IntegerArrayValueObject obj = Json.toObj(IntegerArrayValueObject.class,
+                "{ \"Value1\": [ \"1\" , 2,3 ], \"Value2\": [ 4, 5, 6, 7 ] }");
+
+        Assert.assertArrayEquals(ints, Json.toObj(int[].class, utf8, 0, utf8.length));
+        Assert.assertArrayEquals(new int[] { 1, 2, 3 }, obj.Value1);
+        Assert.assertArrayEquals(new int[] { 4 }, Json.toObj(int[].class, "[ 4 ]"));
+        ExceptionAssert.assertThrows(RuntimeException.class, () -> Json.toObj(int[].class, "[ 1, 2"));
+    }
+
+    @Test
+    public void JsonDeserializer_PrimitiveArrayAcrossRefills_IsCorrect() throws IOException
+    {
+        long[] obj = Json.readObj(long[].class, new TrickleReader("[ 123451234512345 , -7\n, 42 ]", 1, false));
+
+        Assert.assertArrayEquals(new long[] { 123451234512345L, -7, 42 }, obj);
+    }
+
+    @Test
+    public void JsonDeserializer_PrimitiveArrayQuotedValues_IsCorrect()
+    {
+        Assert.assertArrayEquals(new int[] { 1, 2 }, Json.toObj(int[].class, "[ \"1\", 2 ]"));
+    }
+
+    @Test
+    public void JsonDeserializer_PrimitiveArrayConversionFailure_ThrowsException()
+    {
+        ExceptionAssert.assertThrows(NumberFormatException.class, () -> Json.toObj(int[].class, "[ 1, 2147483648, 3 ]"));
+        ExceptionAssert.assertThrows(NumberFormatException.class, () -> Json.toObj(int[].class, "[ 1, 2.5 ]"));
+        ExceptionAssert.assertThrows(NumberFormatException.class, () -> Json.toObj(long[].class, "[ 1, 2 3 ]"));
+        ExceptionAssert.assertThrows(NumberFormatException.class, () -> Json.toObj(byte[].class, "[ 128 ]"));
+        ExceptionAssert.assertThrows(IllegalArgumentException.class, () -> Json.toObj(int[].class, "[ 1, null ]"));
+    }
+
+    @Test
+    public void JsonDeserializer_PrimitiveArrayConversionFailure_ConsumesArray()
+    {
+        IntegerArrayValueObject obj = Json.toObj(IntegerArrayValueObject.class, "{ \"Value1\": [ 1, \"x\", 3 ], \"Value2\": [ 4, 5 ] }");
+
+        Assert.assertNull(obj.Value1);
+        Assert.assertArrayEquals(new Integer[] { 4, 5 }, obj.Value2);
+    }
+
     @Test
     public void JsonDeserializer_ToListOfStrings_IsCorrect()
     {
@@ -149,6 +385,41 @@ public class JsonDeserializerTests
         Assert.assertEquals(true, obj.Value2);
     }
 
+    @Test
+    public void JsonDeserializer_DataPrimitives_IsCorrect()
+    {
+        PrimitiveTypesObject obj = Json.toObj(PrimitiveTypesObject.class,
+                "{ \"byteValue\": -7, \"boolValue\": true, \"intValue\": -2147483648, " +
+                "\"longValue\": 9223372036854775807, \"floatValue\": 0.5, \"dblValue\": -1.25 }");
+
+        Assert.assertEquals(-7, obj.byteValue);
+        Assert.assertEquals(true, obj.boolValue);
+        Assert.assertEquals(Integer.MIN_VALUE, obj.intValue);
+        Assert.assertEquals(Long.MAX_VALUE, obj.longValue);
+        Assert.assertEquals(0.5f, obj.floatValue, 0);
+        Assert.assertEquals(-1.25, obj.dblValue, 0);
+    }
+
+    @Test
+    public void JsonDeserializer_DataNullLiteralForPrimitive_FieldNotSet()
+    {
+        SimpleIntegerValueObject obj = Json.toObj(SimpleIntegerValueObject.class,
+                "{ \"Value1\": null, \"Value2\": 12 }");
+
+        Assert.assertEquals(0, obj.Value1);
+        Assert.assertEquals(12, (int)obj.Value2);
+    }
+
+    @Test
+    public void JsonDeserializer_ElementNamesWithSameHash_MappedToMatchingFields()
+    {
+        HashCollisionObject obj = Json.toObj(HashCollisionObject.class,
+                "{ \"BB\": \"Second\", \"Ab\": \"Unknown\", \"Aa\": \"First\" }");
+
+        Assert.assertEquals("First", obj.Aa);
+        Assert.assertEquals("Second", obj.BB);
+    }
+
     @Test
     public void JsonDeserializer_DataString_IsCorrect()
     {
@@ -385,4 +656,513 @@ public class JsonDeserializerTests
 
         Assert.assertArrayEquals(new long[] { 123451234512345L, 234562345623456L }, obj.Value);
     }
+
+    @Test
+    public void JsonDeserializer_ReadObjOneCharPerRead_IsCorrect() throws IOException
+    {
+        String json = "{ \"Unknown\": { \"a\": [ \"x\\\"}\", 1 ] }, \"Value\" : { \"Value1\": 12 , \"Value2\" : 34 } }";
+
+        SimpleSubObjectValueObject obj = Json.readObj(SimpleSubObjectValueObject.class, new TrickleReader(json, 1, false));
+
+        Assert.assertEquals(12, obj.Value.Value1);
+        Assert.assertEquals(34, (int)obj.Value.Value2);
+    }
+
+    @Test
+    public void JsonDeserializer_ReadObjValueLargerThanBuffer_IsCorrect() throws IOException
+    {
+        String value = IntStream.range(0, 50000).mapToObj(x -> "v" + x).collect(Collectors.joining());
+
+        SimpleStringValueObject obj = Json.readObj(SimpleStringValueObject.class,
+                new TrickleReader("{ \"Value\": \"" + value + "\" }", 1000, false));
+
+        Assert.assertEquals(value, obj.Value);
+    }
+
+    @Test
+    public void JsonDeserializer_ReadListFromInputStream_IsCorrect() throws IOException
+    {
+        List<String> items = IntStream.range(0, 5000).mapToObj(x -> "Item " + x + " caf\u00e9 \u65e5\u672c \ud83d\ude00").collect(Collectors.toList());
+        byte[] json = Json.toJsonString(items).getBytes(StandardCharsets.UTF_8);
+
+        List<String> list = Json.readList(String.class, new ByteArrayInputStream(json));
+
+        Assert.assertEquals(items, list);
+    }
+
+    @Test
+    public void JsonDeserializer_ReadObjFromChannel_IsCorrect() throws IOException
+    {
+        byte[] json = "{ \"Value\": \"Important Data Here\" }".getBytes(StandardCharsets.UTF_8);
+
+        SimpleStringValueObject obj = Json.readObj(SimpleStringValueObject.class, Channels.newChannel(new ByteArrayInputStream(json)));
+
+        Assert.assertEquals("Important Data Here", obj.Value);
+    }
+
+    @Test
+    public void JsonDeserializer_ReadElementValue_StopsReadingAfterElement() throws IOException
+    {
+        Double price = Json.readElementValue(Double.class, "Price",
+                new TrickleReader("{ \"Data1\": \"Something Useless\", \"Price\": 2.57, \"Data2\": ", 3, true));
+
+        Assert.assertEquals(2.57, price, 0);
+    }
+
+    @Test
+    public void JsonDeserializer_ReadObjInputFails_ThrowsIOException()
+    {
+        try
+        {
+            Json.readObj(SimpleSubObjectValueObject.class, new TrickleReader("{ \"Value\": { \"Value1\": 12", 4, true));
+            Assert.fail("Expected IOException");
+        }
+        catch (IOException e)
+        {
+            Assert.assertEquals("Connection reset", e.getMessage());
+        }
+    }
+
+    @Test
+    public void JsonDeserializer_ReadObjSyntaxError_ReportsSamePositionAsString()
+    {
+        String json = "{ \"Value\": \"abc\" x }";
+        RuntimeException expected = ExceptionAssert.getException(RuntimeException.class, () -> Json.toObj(SimpleStringValueObject.class, json));
+
+        RuntimeException actual = ExceptionAssert.getException(RuntimeException.class, () -> {
+            try
+            {
+                Json.readObj(SimpleStringValueObject.class, new TrickleReader(json, 1, false));
+            }
+            catch (IOException e)
+            {
+                throw new AssertionError(e);
+            }
+        });
+
+        Assert.assertEquals(expected.getMessage(), actual.getMessage());
+    }
+
+    @Test
+    public void JsonDeserializer_ToObjFromBytes_IsCorrect()
+    {
+        byte[] json = "xx{ \"Value\": { \"Value1\": 12, \"Value2\": 34 } }yy".getBytes(StandardCharsets.UTF_8);
+
+        SimpleSubObjectValueObject obj = Json.toObj(SimpleSubObjectValueObject.class, json, 2, json.length - 4);
+
+        Assert.assertEquals(12, obj.Value.Value1);
+        Assert.assertEquals(34, (int)obj.Value.Value2);
+    }
+
+    @Test
+    public void JsonDeserializer_ToObjFromBytesNonAsciiText_IsCorrect()
+    {
+        byte[] json = "{ \"Unknown\": \"\u00fc\", \"Caf\u00e9\": \"\u65e5\u672c \ud83d\ude00\", \"\u65e5\u672c\": 5 }".getBytes(StandardCharsets.UTF_8);
+
+        UnicodeFieldNameObject obj = Json.toObj(UnicodeFieldNameObject.class, json, 0, json.length);
+
+        Assert.assertEquals("\u65e5\u672c \ud83d\ude00", obj.Caf\u00e9);
+        Assert.assertEquals(5, obj.\u65e5\u672c);
+    }
+
+    @Test
+    public void JsonDeserializer_ToListFromBytes_MatchesToListFromString()
+    {
+        List<String> items = IntStream.range(0, 5000).mapToObj(x -> "Item " + x + " caf\u00e9 \u65e5\u672c \ud83d\ude00").collect(Collectors.toList());
+        byte[] json = Json.toJsonString(items).getBytes(StandardCharsets.UTF_8);
+
+        List<String> list = Json.toList(String.class, json, 0, json.length);
+
+        Assert.assertEquals(items, list);
+    }
+
+    @Test
+    public void JsonDeserializer_ToObjFromBytesSyntaxError_PositionRelativeToOffset()
+    {
+        byte[] json = "xx{ \"Value\": \"abc\" x }".getBytes(StandardCharsets.UTF_8);
+
+        RuntimeException e = ExceptionAssert.getException(RuntimeException.class,
+                () -> Json.toObj(SimpleStringValueObject.class, json, 2, json.length - 2));
+
+        Assert.assertEquals("Expected '}' at position 17.", e.getMessage());
+    }
+
+    @Test
+    public void JsonDeserializer_ToObjFromBytesOutOfRange_ThrowsException()
+    {
+        byte[] json = "{ \"Value\": \"abc\" }".getBytes(StandardCharsets.UTF_8);
+
+        ExceptionAssert.assertThrows(IndexOutOfBoundsException.class, () -> Json.toObj(SimpleStringValueObject.class, json, 2, json.length));
+    }
+
+    @Test
+    public void JsonDeserializer_ReadObjOneBytePerRead_IsCorrect() throws IOException
+    {
+        byte[] json = "{ \"Caf\u00e9\": \"\u65e5\u672c \ud83d\ude00\", \"\u65e5\u672c\": 5 }".getBytes(StandardCharsets.UTF_8);
+        InputStream in = new ByteArrayInputStream(json)
+        {
+            @Override
+            public synchronized int read(final byte[] b, final int off, final int len)
+            {
+                return super.read(b, off, Math.min(len, 1));
+            }
+        };
+
+        UnicodeFieldNameObject obj = Json.readObj(UnicodeFieldNameObject.class, in);
+
+        Assert.assertEquals("\u65e5\u672c \ud83d\ude00", obj.Caf\u00e9);
+        Assert.assertEquals(5, obj.\u65e5\u672c);
+    }
+
+    @Test
+    public void JsonDeserializer_ReadObjFromFile_IsCorrect() throws IOException
+    {
+        Path file = Files.createTempFile("JsonDeserializerTests", ".json");
+        try
+        {
+            Files.write(file, "{ \"Caf\u00e9\": \"\u65e5\u672c \ud83d\ude00\", \"\u65e5\u672c\": 5 }".getBytes(StandardCharsets.UTF_8));
+
+            UnicodeFieldNameObject obj = Json.readObj(UnicodeFieldNameObject.class, file);
+
+            Assert.assertEquals("\u65e5\u672c \ud83d\ude00", obj.Caf\u00e9);
+            Assert.assertEquals(5, obj.\u65e5\u672c);
+        }
+        finally
+        {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void JsonDeserializer_ReadListFromFileLargerThanMappedWindow_IsCorrect() throws IOException
+    {
+        List<SimpleStringValueObject> items = IntStream.range(0, 500000)
+                .mapToObj(x -> new SimpleStringValueObject("Item " + x + " caf\u00e9 \ud83d\ude00"))
+                .collect(Collectors.toList());
+        Path file = Files.createTempFile("JsonDeserializerTests", ".json");
+        try
+        {
+            try (OutputStream out = Files.newOutputStream(file))
+            {
+                Json.writeTo(items, out);
+            }
+
+            List<SimpleStringValueObject> list = Json.readList(SimpleStringValueObject.class, file);
+
+            Assert.assertTrue(Files.size(file) > 16 << 20);
+            Assert.assertEquals(items.size(), list.size());
+            for (int i = 0; i < items.size(); i++)
+                Assert.assertEquals(items.get(i).Value, list.get(i).Value);
+        }
+        finally
+        {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void JsonDeserializer_ReadObjFromEmptyFile_ThrowsException() throws IOException
+    {
+        Path file = Files.createTempFile("JsonDeserializerTests", ".json");
+        try
+        {
+            ExceptionAssert.assertThrows(RuntimeException.class, () -> {
+                try
+                {
+                    Json.readObj(SimpleStringValueObject.class, file);
+                }
+                catch (IOException e)
+                {
+                    throw new AssertionError(e);
+                }
+            });
+        }
+        finally
+        {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void JsonDeserializer_LinesFromReader_ReadsEachRecord()
+    {
+        String json = "{ \"Value1\": 1, \"Value2\": 2 }\n{ \"Value1\": 3, \"Value2\": 4 }\r\n\n{ \"Value1\": 5, \"Value2\": 6 }\n";
+
+        List<SimpleIntegerValueObject> records = Json.lines(SimpleIntegerValueObject.class, new StringReader(json)).collect(Collectors.toList());
+
+        Assert.assertEquals(3, records.size());
+        Assert.assertEquals(5, records.get(2).Value1);
+        Assert.assertEquals(6, (int)records.get(2).Value2);
+    }
+
+    @Test
+    public void JsonDeserializer_LinesOfNumbers_ReadsEachRecord()
+    {
+        byte[] json = "1\n2 \n 3".getBytes(StandardCharsets.UTF_8);
+
+        List<Integer> records = Json.lines(Integer.class, new ByteArrayInputStream(json)).collect(Collectors.toList());
+
+        Assert.assertEquals(Arrays.asList(1, 2, 3), records);
+    }
+
+    @Test
+    public void JsonDeserializer_Lines_OnlyReadsWhatIsConsumed()
+    {
+        TrickleReader reader = new TrickleReader("{ \"Value\": \"a\" }\n{ \"Value\": \"b\" }\n{ \"Value\": ", 1, true);
+
+        List<SimpleStringValueObject> records = Json.lines(SimpleStringValueObject.class, reader).limit(2).collect(Collectors.toList());
+
+        Assert.assertEquals("b", records.get(1).Value);
+    }
+
+    @Test
+    public void JsonDeserializer_LinesInputFails_ThrowsUncheckedIOException()
+    {
+        TrickleReader reader = new TrickleReader("{ \"Value\": \"a\" }\n{ \"Value\": ", 4, true);
+
+        ExceptionAssert.assertThrows(UncheckedIOException.class, () -> Json.lines(SimpleStringValueObject.class, reader).count());
+    }
+
+    @Test
+    public void JsonDeserializer_LinesFromFile_ReadsEachRecord() throws IOException
+    {
+        Path file = Files.createTempFile("JsonDeserializerTests", ".jsonl");
+        try
+        {
+            Files.write(file, Arrays.asList("{ \"Value\": \"a\" }", "{ \"Value\": \"caf\u00e9\" }"), StandardCharsets.UTF_8);
+
+            try (Stream<SimpleStringValueObject> records = Json.lines(SimpleStringValueObject.class, file))
+            {
+                Assert.assertEquals(Arrays.asList("a", "caf\u00e9"), records.map(x -> x.Value).collect(Collectors.toList()));
+            }
+        }
+        finally
+        {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void JsonDeserializer_ToListParallel_MatchesToList()
+    {
+        List<SimpleIntegerValueObject> items = IntStream.range(0, 10000).mapToObj(x -> new SimpleIntegerValueObject(x, -x)).collect(Collectors.toList());
+        String json = Json.toJsonString(items);
+
+        List<SimpleIntegerValueObject> list = Json.toListParallel(SimpleIntegerValueObject.class, json);
+
+        Assert.assertEquals(items.size(), list.size());
+        for (int i = 0; i < items.size(); i++)
+        {
+            Assert.assertEquals(i, list.get(i).Value1);
+            Assert.assertEquals(-i, (int)list.get(i).Value2);
+        }
+    }
+
+    @Test
+    public void JsonDeserializer_ToListParallelOnExecutor_KeepsOrder()
+    {
+        List<String> items = IntStream.range(0, 10000).mapToObj(x -> "Item " + x).collect(Collectors.toList());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            List<String> list = Json.toListParallel(String.class, Json.toJsonString(items), executor);
+
+            Assert.assertEquals(items, list);
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void JsonDeserializer_ToListParallelSmallArray_ReadOnCallingThread()
+    {
+        AtomicInteger tasks = new AtomicInteger();
+        Executor executor = x -> {
+            tasks.incrementAndGet();
+            x.run();
+        };
+        String longItems = IntStream.range(0, 3).mapToObj(x -> "\"" + String.join("", Collections.nCopies(10000, "a")) + "\"").collect(Collectors.joining(", ", "[ ", " ]"));
+
+        Assert.assertEquals(Arrays.asList(1, 2, 3), Json.toListParallel(Integer.class, "[ 1, 2, 3 ]", executor));
+        Assert.assertEquals(3, Json.toListParallel(String.class, longItems, executor).size());
+        Assert.assertEquals(0, tasks.get());
+    }
+
+    @Test
+    public void JsonDeserializer_ToListParallelLargeArray_ReadOnExecutor()
+    {
+        AtomicInteger tasks = new AtomicInteger();
+        Executor executor = x -> {
+            tasks.incrementAndGet();
+            x.run();
+        };
+        List<Integer> items = IntStream.range(0, 10000).boxed().collect(Collectors.toList());
+
+        Assert.assertEquals(items, Json.toListParallel(Integer.class, Json.toJsonString(items), executor));
+        Assert.assertTrue(tasks.get() > 1);
+    }
+
+    @Test
+    public void JsonDeserializer_ToListParallelEmptyArray_IsEmpty()
+    {
+        Assert.assertTrue(Json.toListParallel(String.class, "[ ]").isEmpty());
+    }
+
+    @Test
+    public void JsonDeserializer_ToListParallelConversionFailure_ThrowsLikeToList()
+    {
+        String json = IntStream.range(0, 10000)
+                .mapToObj(x -> x == 2000 ? "\"abc\"" : x == 7000 ? "\"def\"" : Integer.toString(x))
+                .collect(Collectors.joining(", ", "[ ", " ]"));
+        RuntimeException expected = ExceptionAssert.getException(NumberFormatException.class, () -> Json.toList(Integer.class, json));
+
+        RuntimeException actual = ExceptionAssert.getException(NumberFormatException.class, () -> Json.toListParallel(Integer.class, json));
+
+        Assert.assertEquals(expected.getMessage(), actual.getMessage());
+    }
+
+    @Test
+    public void JsonDeserializer_ToListParallelSyntaxError_ThrowsLikeToList()
+    {
+        String json = IntStream.range(0, 10000)
+                .mapToObj(x -> x == 1 ? "\"abc\"" : x == 6000 ? "{ \"Value\": \"b\" x }" : x == 6001 ? "{ \"Value\" 1 }" : "{ \"Value\": \"a\" }")
+                .collect(Collectors.joining(", ", "[ ", " ]"));
+        RuntimeException expected = ExceptionAssert.getException(RuntimeException.class, () -> Json.toList(SimpleStringValueObject.class, json));
+
+        RuntimeException actual = ExceptionAssert.getException(RuntimeException.class, () -> Json.toListParallel(SimpleStringValueObject.class, json));
+
+        Assert.assertEquals(expected.getMessage(), actual.getMessage());
+    }
+
+    @Test
+    public void JsonDeserializer_TypeNestedLists_IsCorrect()
+    {
+        List<List<Integer>> obj = Json.readObj(new Json.TypeOf<List<List<Integer>>>() {}.getType(),
+                "[ [ 1, 2 ], [ ], [ 3 ] ]");
+
+        Assert.assertEquals(Arrays.asList(Arrays.asList(1, 2), Collections.emptyList(), Collections.singletonList(3)), obj);
+    }
+
+    @Test
+    public void JsonDeserializer_TypeMapOfLists_IsCorrect()
+    {
+        Map<String, List<Long>> obj = Json.readObj(new Json.TypeOf<Map<String, List<Long>>>() {}.getType(),
+                "{ \"Odd\": [ 1, 3 ], \"Even\": [ 2 ] }");
+
+        Assert.assertEquals(Arrays.asList(1L, 3L), obj.get("Odd"));
+        Assert.assertEquals(Collections.singletonList(2L), obj.get("Even"));
+    }
+
+    @Test
+    public void JsonDeserializer_TypeArrayOfGenericLists_IsCorrect()
+    {
+        List<Integer>[] obj = Json.readObj(new Json.TypeOf<List<Integer>[]>() {}.getType(),
+                "[ [ 1 ], [ 2, 3 ] ]");
+
+        Assert.assertEquals(2, obj.length);
+        Assert.assertEquals(Arrays.asList(2, 3), obj[1]);
+    }
+
+    @Test
+    public void JsonDeserializer_TypeWildcard_ReadsUpperBound()
+    {
+        List<? extends SimpleStringValueObject> obj = Json.readObj(new Json.TypeOf<List<? extends SimpleStringValueObject>>() {}.getType(),
+                "[ { \"Value\": \"Tidus\" }, { \"Value\": \"Yuna\" } ]");
+
+        Assert.assertEquals("Yuna", obj.get(1).Value);
+    }
+
+    @Test
+    public void JsonDeserializer_TypeParameterizedObject_ReadsFieldsAsTypeArguments()
+    {
+        GenericContainerObject<Integer> obj = Json.readObj(new Json.TypeOf<GenericContainerObject<Integer>>() {}.getType(),
+                "{ \"Items\": [ 1, 2 ], \"Groups\": { \"Small\": [ 3 ] }, \"Array\": [ 4, 5 ] }");
+
+        Assert.assertEquals(Arrays.asList(1, 2), obj.Items);
+        Assert.assertEquals(Collections.singletonList(3), obj.Groups.get("Small"));
+        Assert.assertArrayEquals(new Integer[] { 4, 5 }, obj.Array);
+    }
+
+    @Test
+    public void JsonDeserializer_TypeVariableBoundInParentClass_IsCorrect()
+    {
+        SubObjectKeyValueObject obj = Json.toObj(SubObjectKeyValueObject.class,
+                "{ \"Key\": \"Weapon\", \"Value\": { \"Value\": \"Masamune\" } }");
+
+        Assert.assertEquals("Weapon", obj.Key);
+        Assert.assertEquals("Masamune", obj.Value.Value);
+    }
+
+    @Test
+    public void JsonDeserializer_TypeRecursiveParameterizedObject_IsCorrect()
+    {
+        GenericTreeObject<Double> obj = Json.readObj(new Json.TypeOf<GenericTreeObject<Double>>() {}.getType(),
+                "{ \"Value\": 1.5, \"Children\": [ { \"Value\": 2.5, \"Children\": [ { \"Value\": 3.5 } ] } ] }");
+
+        Assert.assertEquals(1.5, obj.Value, 0);
+        Assert.assertEquals(3.5, obj.Children.get(0).Children.get(0).Value, 0);
+    }
+
+    @Test
+    public void JsonDeserializer_TypeRawClass_ReadsLikeClass()
+    {
+        java.lang.reflect.Type type = SimpleStringValueObject.class;
+
+        SimpleStringValueObject obj = Json.readObj(type, "{ \"Value\": \"Lulu\" }");
+
+        Assert.assertEquals("Lulu", obj.Value);
+    }
+
+    @Test
+    public void JsonDeserializer_TypeParameterizedObjectContainsNoElements_ThrowsException()
+    {
+        ExceptionAssert.assertThrows(RuntimeException.class,
+                () -> Json.readObj(new Json.TypeOf<GenericKeyValueObject<Integer>>() {}.getType(), "{ }"));
+    }
+
+    @Test
+    public void JsonDeserializer_InputTrailingContent_ThrowsException()
+    {
+        ExceptionAssert.assertThrows(RuntimeException.class,
+                () -> Json.toObj(SimpleStringValueObject.class, "{ \"Value\": \"Auron\" } }"));
+    }
+
+    @Test
+    public void JsonDeserializer_Utf8InputTrailingContent_ThrowsException()
+    {
+        byte[] json = "{ \"Value\": \"Auron\" } x".getBytes(StandardCharsets.UTF_8);
+
+        ExceptionAssert.assertThrows(RuntimeException.class, () -> Json.toObj(SimpleStringValueObject.class, json, 0, json.length));
+    }
+
+    @Test
+    public void JsonDeserializer_ReaderTrailingContent_ThrowsException() throws IOException
+    {
+        try
+        {
+            Json.readObj(SimpleStringValueObject.class, new StringReader("{ \"Value\": \"Auron\" } { }"));
+            Assert.fail("Content after the root value was accepted.");
+        }
+        catch (RuntimeException e)
+        {
+            Assert.assertTrue(e.getMessage().startsWith("Unexpected content after Json value"));
+        }
+    }
+
+    @Test
+    public void JsonDeserializer_ListTrailingContent_ThrowsException()
+    {
+        ExceptionAssert.assertThrows(RuntimeException.class, () -> Json.toList(Integer.class, "[ 1, 2 ] 3"));
+        ExceptionAssert.assertThrows(RuntimeException.class, () -> Json.toListParallel(Integer.class, "[ 1, 2 ] 3"));
+    }
+
+    @Test
+    public void JsonDeserializer_InputTrailingWhitespace_IsCorrect()
+    {
+        SimpleStringValueObject obj = Json.toObj(SimpleStringValueObject.class, "{ \"Value\": \"Auron\" } \r\n\t ");
+
+        Assert.assertEquals("Auron", obj.Value);
+    }
 }
@@ -0,0 +1,119 @@
+package io.theo.json;
+
+import io.theo.json.testObjects.*;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class JsonEventsTests
+{
+    @Test
+    public void JsonEvents_ToJsonString_RecordsEncodeEvent() throws IOException
+    {
+        List<String> items = Arrays.asList("JC Denton", "Adam Jensen", "Paul Denton");
+
+        List<RecordedEvent> events = record(Collections.emptyMap(), () -> Json.toJsonString(items));
+
+        RecordedEvent event = single(events, "io.theo.json.Encode");
+        Assert.assertEquals(items.getClass().getName(), event.getClass("rootType").getName());
+        Assert.assertEquals(Json.toJsonString(items).length(), event.getLong("size"));
+        Assert.assertEquals(3, event.getInt("elementCount"));
+    }
+
+    @Test
+    public void JsonEvents_ToObj_RecordsDecodeEvent() throws IOException
+    {
+        String json = "{ \"Value\": \"Important Data Here\" }";
+
+        List<RecordedEvent> events = record(Collections.emptyMap(), () -> Json.toObj(SimpleStringValueObject.class, json));
+
+        RecordedEvent event = single(events, "io.theo.json.Decode");
+        Assert.assertEquals(SimpleStringValueObject.class.getName(), event.getClass("rootType").getName());
+        Assert.assertEquals(json.length(), event.getLong("size"));
+        Assert.assertEquals(1, event.getInt("elementCount"));
+    }
+
+    @Test
+    public void JsonEvents_ToList_RecordsItemTypeAndCount() throws IOException
+    {
+        List<RecordedEvent> events = record(Collections.emptyMap(), () -> Json.toList(Integer.class, "[ 1, 2, 3, 4 ]"));
+
+        RecordedEvent event = single(events, "io.theo.json.Decode");
+        Assert.assertEquals(Integer.class.getName(), event.getClass("rootType").getName());
+        Assert.assertEquals(4, event.getInt("elementCount"));
+    }
+
+    @Test
+    public void JsonEvents_BelowMinSize_NotRecorded() throws IOException
+    {
+        List<Integer> large = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+            large.add(i);
+        String largeJson = Json.toJsonString(large);
+
+        List<RecordedEvent> events = record(Collections.singletonMap("minSize", "1000"), () -> {
+            Json.toList(Integer.class, "[ 1, 2, 3 ]");
+            Json.toList(Integer.class, largeJson);
+        });
+
+        Assert.assertEquals(largeJson.length(), single(events, "io.theo.json.Decode").getLong("size"));
+    }
+
+    @Test
+    public void JsonEvents_BelowThreshold_NotRecorded() throws IOException
+    {
+        Runnable decode = () -> Json.toObj(SimpleStringValueObject.class, "{ \"Value\": \"a\" }");
+        decode.run();
+
+        List<RecordedEvent> events = record(null, decode);
+
+        Assert.assertTrue(events.isEmpty());
+    }
+
+    // Records the action with both events enabled. The threshold is zero unless the settings are null.
+    private static List<RecordedEvent> record(final java.util.Map<String, String> settings, final Runnable action) throws IOException
+    {
+        Path file = Files.createTempFile("json-events", ".jfr");
+        try (Recording recording = new Recording())
+        {
+            for (String name : Arrays.asList("io.theo.json.Encode", "io.theo.json.Decode"))
+            {
+                recording.enable(name).withoutStackTrace();
+                if (settings != null)
+                {
+                    recording.enable(name).withThreshold(Duration.ZERO);
+                    settings.forEach((key, value) -> recording.enable(name).with(key, value));
+                }
+            }
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(x -> x.getEventType().getName().startsWith("io.theo.json."))
+                    .collect(Collectors.toList());
+        }
+        finally
+        {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static RecordedEvent single(final List<RecordedEvent> events, final String name)
+    {
+        List<RecordedEvent> matches = events.stream().filter(x -> x.getEventType().getName().equals(name)).collect(Collectors.toList());
+        Assert.assertEquals(1, matches.size());
+        return matches.get(0);
+    }
+}
@@ -0,0 +1,203 @@
+package io.theo.json;
+
+import io.theo.json.testObjects.*;
+import org.junit.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+public class JsonMetricsTests
+{
+    // The switch is read once, when JsonMetrics is initialized, so it has to be set before anything uses Json.
+    // Test classes run in their own JVM.
+    static
+    {
+        System.setProperty("io.theo.json.metrics", "true");
+    }
+
+    @Before
+    public void resetMetrics()
+    {
+        JsonMetrics.reset();
+    }
+
+    @Test
+    public void JsonMetrics_PropertySet_IsEnabled()
+    {
+        Assert.assertTrue(JsonMetrics.isEnabled());
+    }
+
+    @Test
+    public void JsonMetrics_ToJsonString_CountsDocumentsSizeAndLatency()
+    {
+        SimpleStringValueObject obj = new SimpleStringValueObject("Important Data Here");
+
+        String json = Json.toJsonString(obj);
+        Json.toJsonString(obj);
+
+        JsonMetrics.TypeMetrics metrics = JsonMetrics.getTypeMetrics().get(SimpleStringValueObject.class);
+        Assert.assertEquals(2, metrics.getEncodedDocuments());
+        Assert.assertEquals(2 * json.length(), metrics.getEncodedSize());
+        Assert.assertEquals(2, metrics.getEncodeLatency().getCount());
+        Assert.assertEquals(2, Arrays.stream(metrics.getEncodeLatency().getBucketCounts()).sum());
+        Assert.assertTrue(metrics.getEncodeLatency().getSum() > 0);
+        Assert.assertEquals(0, metrics.getDecodedDocuments());
+    }
+
+    @Test
+    public void JsonMetrics_WriteToOutputStream_CountsBytes() throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        Json.writeTo(new SimpleStringValueObject("\u00C9l\u00E9ment"), out);
+
+        JsonMetrics.TypeMetrics metrics = JsonMetrics.getTypeMetrics().get(SimpleStringValueObject.class);
+        Assert.assertEquals(1, metrics.getEncodedDocuments());
+        Assert.assertEquals(out.size(), metrics.getEncodedSize());
+    }
+
+    @Test
+    public void JsonMetrics_ToObj_CountsDocumentsAndInstances()
+    {
+        String json = "{ \"Value\": \"Important Data Here\" }";
+
+        Json.toObj(SimpleStringValueObject.class, json);
+
+        JsonMetrics.TypeMetrics metrics = JsonMetrics.getTypeMetrics().get(SimpleStringValueObject.class);
+        Assert.assertEquals(1, metrics.getDecodedDocuments());
+        Assert.assertEquals(json.length(), metrics.getDecodedSize());
+        Assert.assertEquals(1, metrics.getDecodeLatency().getCount());
+        Assert.assertEquals(1, metrics.getInstancesCreated());
+    }
+
+    @Test
+    public void JsonMetrics_ToObjUtf8_CountsBytes()
+    {
+        byte[] json = "{ \"Value\": \"\u00C9l\u00E9ment\" }".getBytes(StandardCharsets.UTF_8);
+
+        Json.toObj(SimpleStringValueObject.class, json, 0, json.length);
+
+        Assert.assertEquals(json.length, JsonMetrics.getTypeMetrics().get(SimpleStringValueObject.class).getDecodedSize());
+    }
+
+    @Test
+    public void JsonMetrics_ToList_CountedUnderItemClass()
+    {
+        List<SimpleStringValueObject> items = Json.toList(SimpleStringValueObject.class, "[ { \"Value\": \"a\" }, { \"Value\": \"b\" } ]");
+
+        JsonMetrics.TypeMetrics metrics = JsonMetrics.getTypeMetrics().get(SimpleStringValueObject.class);
+        Assert.assertEquals(2, items.size());
+        Assert.assertEquals(1, metrics.getDecodedDocuments());
+        Assert.assertEquals(2, metrics.getInstancesCreated());
+    }
+
+    @Test
+    public void JsonMetrics_NestedObjects_CountsInstancesPerClass()
+    {
+        Json.toObj(SimpleSubObjectValueObject.class, "{ \"Value\": { \"Value\": 17 } }");
+
+        Assert.assertEquals(1, JsonMetrics.getTypeMetrics().get(SimpleSubObjectValueObject.class).getInstancesCreated());
+        Assert.assertEquals(1, JsonMetrics.getTypeMetrics().get(SimpleIntegerValueObject.class).getInstancesCreated());
+        Assert.assertEquals(0, JsonMetrics.getTypeMetrics().get(SimpleIntegerValueObject.class).getDecodedDocuments());
+    }
+
+    @Test
+    public void JsonMetrics_NewClass_CountsMissesThenHits() throws Exception
+    {
+        Class<?> type = new IsolatedClassLoader().loadClass(SimpleStringValueObject.class.getName());
+        String json = "{ \"Value\": \"Important Data Here\" }";
+
+        Json.toObj(type, json);
+        JsonMetrics.CacheMetrics readers = JsonMetrics.getCacheMetrics().get(JsonMetrics.Cache.Readers);
+        JsonMetrics.CacheMetrics constructors = JsonMetrics.getCacheMetrics().get(JsonMetrics.Cache.Constructors);
+        Assert.assertEquals(1, readers.getMisses());
+        Assert.assertEquals(1, constructors.getMisses());
+        Assert.assertTrue(JsonMetrics.getCacheMetrics().get(JsonMetrics.Cache.Metadata).getMisses() >= 1);
+
+        Json.toObj(type, json);
+        Assert.assertEquals(1, readers.getMisses());
+        Assert.assertEquals(1, readers.getHits());
+        Assert.assertEquals(1, constructors.getHits());
+    }
+
+    @Test
+    public void JsonMetrics_GenericType_CompilesDecoderOnce()
+    {
+        String json = "[ { \"Key\": \"Potion\", \"Value\": 50 } ]";
+        JsonMetrics.CacheMetrics decoders = JsonMetrics.getCacheMetrics().get(JsonMetrics.Cache.Decoders);
+
+        Json.readObj(new Json.TypeOf<List<GenericKeyValueObject<Long>>>() {}.getType(), json);
+        long misses = decoders.getMisses();
+        List<GenericKeyValueObject<Long>> obj = Json.readObj(new Json.TypeOf<List<GenericKeyValueObject<Long>>>() {}.getType(), json);
+
+        Assert.assertTrue(misses >= 1);
+        Assert.assertEquals(misses, decoders.getMisses());
+        Assert.assertEquals(Long.valueOf(50), obj.get(0).Value);
+    }
+
+    @Test
+    public void JsonMetrics_StringCache_CountsHitsAndMisses()
+    {
+        Json.setStringCacheSize(64);
+        try
+        {
+            Json.toObj(SimpleStringValueObject.class, "{ \"Value\": \"Important Data Here\" }");
+            Json.toObj(SimpleStringValueObject.class, "{ \"Value\": \"Important Data Here\" }");
+
+            JsonMetrics.CacheMetrics strings = JsonMetrics.getCacheMetrics().get(JsonMetrics.Cache.Strings);
+            Assert.assertEquals(1, strings.getMisses());
+            Assert.assertEquals(1, strings.getHits());
+        }
+        finally
+        {
+            Json.setStringCacheSize(0);
+        }
+    }
+
+    @Test
+    public void JsonMetrics_Reset_ClearsEverything()
+    {
+        Json.toObj(SimpleStringValueObject.class, Json.toJsonString(new SimpleStringValueObject("a")));
+
+        JsonMetrics.reset();
+
+        Assert.assertTrue(JsonMetrics.getTypeMetrics().isEmpty());
+        for (JsonMetrics.CacheMetrics cache : JsonMetrics.getCacheMetrics().values())
+            Assert.assertEquals(0, cache.getHits() + cache.getMisses());
+    }
+
+    @Test
+    public void JsonMetrics_ClassLoaderNoLongerUsed_CanBeUnloaded() throws Exception
+    {
+        WeakReference<ClassLoader> loader = recordIsolatedType();
+
+        for (int i = 0; i < 50 && loader.get() != null; i++)
+        {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        Assert.assertNull("Type metrics keep unused ClassLoaders alive.", loader.get());
+    }
+
+    @Test
+    public void JsonMetrics_HistogramBuckets_DoubleFromOneMicrosecond()
+    {
+        Assert.assertEquals(1024, JsonMetrics.Histogram.getUpperBound(0));
+        Assert.assertEquals(2048, JsonMetrics.Histogram.getUpperBound(1));
+        Assert.assertEquals(Long.MAX_VALUE, JsonMetrics.Histogram.getUpperBound(JsonMetrics.Histogram.BucketCount - 1));
+    }
+
+    private static WeakReference<ClassLoader> recordIsolatedType() throws Exception
+    {
+        ClassLoader loader = new IsolatedClassLoader();
+        Class<?> type = loader.loadClass(SimpleStringValueObject.class.getName());
+        Json.toJsonString(Json.toObj(type, "{ \"Value\": \"Cloud\" }"));
+        Assert.assertEquals(1, JsonMetrics.getTypeMetrics().get(type).getDecodedDocuments());
+        return new WeakReference<>(loader);
+    }
+}
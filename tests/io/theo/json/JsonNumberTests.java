@@ -0,0 +1,139 @@
+package io.theo.json;
+
+import io.theo.json.testObjects.*;
+import org.junit.*;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Random;
+
+public class JsonNumberTests
+{
+    private static final int Iterations = 20000;
+
+    @Test
+    public void JsonNumber_WriteDouble_IsShortest()
+    {
+        Assert.assertEquals("1.0E23", Json.toJsonString(1e23));
+        Assert.assertEquals("2.0E23", Json.toJsonString(2e23));
+        Assert.assertEquals("8.41E21", Json.toJsonString(8.41e21));
+        Assert.assertEquals("5.684341886080802E-14", Json.toJsonString(Math.scalb(1.0, -44)));
+        Assert.assertEquals("4.8726570057E288", Json.toJsonString(4.8726570057e288));
+    }
+
+    @Test
+    public void JsonNumber_WriteDouble_MatchesDoubleToStringLayout()
+    {
+        Assert.assertEquals("[ 0.0, -0.0, 1.0, 100.0, 1234567.0, 1.0E7, 0.001, 9.99E-4, 1.5E-10, -2.5, 4.9E-324, 1.7976931348623157E308 ]",
+                Json.toJsonString(new double[] { 0.0, -0.0, 1, 100, 1234567, 1e7, 0.001, 0.000999, 1.5e-10, -2.5, Double.MIN_VALUE, Double.MAX_VALUE }));
+        Assert.assertEquals("[ 0.1, 3.4028235E38, 1.4E-45, 1.0E-36, 1.6777216E7 ]",
+                Json.toJsonString(new float[] { 0.1f, Float.MAX_VALUE, Float.MIN_VALUE, 1e-36f, 16777216f }));
+        Assert.assertEquals("[ -9223372036854775808, 2147483647 ]", Json.toJsonString(new long[] { Long.MIN_VALUE, Integer.MAX_VALUE }));
+    }
+
+    @Test
+    public void JsonNumber_WriteDoubleRandom_IsShortestRoundTrip()
+    {
+        Random random = new Random(42);
+        for (int i = 0; i < Iterations; i++)
+        {
+            double value = Double.longBitsToDouble(random.nextLong());
+            if (Double.isNaN(value) || Double.isInfinite(value))
+                continue;
+            String json = Json.toJsonString(value);
+
+            Assert.assertEquals(json, value, Double.parseDouble(json), 0);
+            Assert.assertEquals(json, Double.doubleToLongBits(value), Double.doubleToLongBits(Json.toObj(Double.class, json)));
+            BigDecimal decimal = new BigDecimal(json).stripTrailingZeros();
+            for (RoundingMode mode : new RoundingMode[] { RoundingMode.FLOOR, RoundingMode.CEILING })
+                if (decimal.precision() > 1)
+                    Assert.assertNotEquals(json, value, Double.parseDouble(new BigDecimal(value).round(new MathContext(decimal.precision() - 1, mode)).toString()), 0);
+        }
+    }
+
+    @Test
+    public void JsonNumber_WriteFloatRandom_IsShortestRoundTrip()
+    {
+        Random random = new Random(42);
+        for (int i = 0; i < Iterations; i++)
+        {
+            float value = Float.intBitsToFloat(random.nextInt());
+            if (Float.isNaN(value) || Float.isInfinite(value))
+                continue;
+            String json = Json.toJsonString(value);
+
+            Assert.assertEquals(json, Float.floatToIntBits(value), Float.floatToIntBits(Float.parseFloat(json)));
+            Assert.assertEquals(json, Float.floatToIntBits(value), Float.floatToIntBits(Json.toObj(Float.class, json)));
+            BigDecimal decimal = new BigDecimal(json).stripTrailingZeros();
+            for (RoundingMode mode : new RoundingMode[] { RoundingMode.FLOOR, RoundingMode.CEILING })
+                if (decimal.precision() > 1)
+                    Assert.assertNotEquals(json, value, Float.parseFloat(new BigDecimal(value).round(new MathContext(decimal.precision() - 1, mode)).toString()), 0);
+        }
+    }
+
+    @Test
+    public void JsonNumber_ReadDoubleRandom_MatchesParseDouble()
+    {
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < Iterations; i++)
+        {
+            sb.setLength(0);
+            if (random.nextBoolean())
+                sb.append('-');
+            for (int digits = 1 + random.nextInt(24); digits > 0; digits--)
+                sb.append((char)('0' + random.nextInt(10)));
+            if (random.nextBoolean())
+            {
+                sb.append('.');
+                for (int digits = 1 + random.nextInt(24); digits > 0; digits--)
+                    sb.append((char)('0' + random.nextInt(10)));
+            }
+            if (random.nextBoolean())
+                sb.append(random.nextBoolean() ? 'e' : 'E').append(random.nextInt(700) - 350);
+            String json = sb.toString();
+
+            Assert.assertEquals(json, Double.doubleToLongBits(Double.parseDouble(json)), Double.doubleToLongBits(Json.toObj(Double.class, json)));
+            Assert.assertEquals(json, Float.floatToIntBits(Float.parseFloat(json)), Float.floatToIntBits(Json.toObj(float[].class, "[" + json + "]")[0]));
+        }
+    }
+
+    @Test
+    public void JsonNumber_ReadHalfwayDoubles_MatchesParseDouble()
+    {
+        Random random = new Random(42);
+        for (int i = 0; i < Iterations / 10; i++)
+        {
+            double value = Math.abs(Double.longBitsToDouble(random.nextLong()));
+            if (Double.isNaN(value) || Double.isInfinite(value) || value == Double.MAX_VALUE)
+                continue;
+            String json = new BigDecimal(value).add(new BigDecimal(Math.nextUp(value))).divide(BigDecimal.valueOf(2)).toString();
+
+            Assert.assertEquals(json, Double.doubleToLongBits(Double.parseDouble(json)), Double.doubleToLongBits(Json.toObj(Double.class, json)));
+        }
+    }
+
+    @Test
+    public void JsonNumber_ReadEdgeCases_MatchesParseDouble()
+    {
+        String[] values = { "0", "-0", "-0.0", "0e10", "1e23", "9007199254740993", "123456789012345678901234567890",
+                "0.000000000000000000000000000001", "4.9e-324", "2.4703282292062327e-324", "1e-400", "1.7976931348623159e308",
+                "1e400", "2.2250738585072011e-308", "0.1", "00012", "1E+2", "7.0e-10" };
+        for (String value : values)
+        {
+            Assert.assertEquals(value, Double.doubleToLongBits(Double.parseDouble(value)), Double.doubleToLongBits(Json.toObj(Double.class, value)));
+            Assert.assertEquals(value, Float.floatToIntBits(Float.parseFloat(value)), Float.floatToIntBits(Json.toObj(Float.class, value)));
+        }
+    }
+
+    @Test
+    public void JsonNumber_ReadInvalidNumber_ThrowsLikeParseDouble()
+    {
+        ExceptionAssert.assertThrows(NumberFormatException.class, () -> Json.toObj(Double.class, "1e"));
+        ExceptionAssert.assertThrows(NumberFormatException.class, () -> Json.toObj(Double.class, "1.2.3"));
+        ExceptionAssert.assertThrows(NumberFormatException.class, () -> Json.toObj(double[].class, "[ - ]"));
+        Assert.assertEquals(1.0, Json.toObj(Double.class, "1."), 0);
+        Assert.assertEquals(0.5, Json.toObj(Double.class, "\"0.5\""), 0);
+    }
+}
@@ -0,0 +1,88 @@
+package io.theo.json;
+
+import io.theo.json.testObjects.*;
+import org.junit.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class JsonPathTests
+{
+    private static final String Document = "{ \"customer\": { \"name\": \"John Doe\", \"tags\": [ \"a\", \"b\" ] }, " +
+            "\"order\": { \"id\": 17, \"items\": [ { \"price\": 1.5 }, { \"price\": 2.5 }, { \"price\": 3.5 }, { \"price\": 4.25, \"qty\": 2 } ] }, " +
+            "\"a/b\": 1, \"m~n\": 2 }";
+
+    @Test
+    public void JsonPath_GetPath_IsCorrect()
+    {
+        double price = Json.getPath(Double.class, "/order/items/3/price", Document);
+
+        Assert.assertEquals(4.25, price, 0);
+    }
+
+    @Test
+    public void JsonPath_GetPathObject_IsCorrect()
+    {
+        SimpleStringValueObject obj = Json.getPath(SimpleStringValueObject.class, "/order",
+                "{ \"order\": { \"Value\": \"Important Data Here\" } }");
+
+        Assert.assertEquals("Important Data Here", obj.Value);
+    }
+
+    @Test
+    public void JsonPath_GetPathRawValue_IsCorrect()
+    {
+        Assert.assertEquals("[ \"a\", \"b\" ]", Json.getPathRawValue("/customer/tags", Document));
+        Assert.assertEquals("\"b\"", Json.getPathRawValue("/customer/tags/1", Document));
+        Assert.assertEquals(Document, Json.getPathRawValue("", Document));
+    }
+
+    @Test
+    public void JsonPath_EscapedTokens_IsCorrect()
+    {
+        Assert.assertEquals(1, (int)Json.getPath(Integer.class, "/a~1b", Document));
+        Assert.assertEquals(2, (int)Json.getPath(Integer.class, "/m~0n", Document));
+    }
+
+    @Test
+    public void JsonPath_MissingPath_IsNull()
+    {
+        Assert.assertNull(Json.getPath(Double.class, "/order/items/4/price", Document));
+        Assert.assertNull(Json.getPath(Double.class, "/order/items/-", Document));
+        Assert.assertNull(Json.getPath(Double.class, "/order/items/01", Document));
+        Assert.assertNull(Json.getPath(Double.class, "/order/id/price", Document));
+        Assert.assertNull(Json.getPathRawValue("/missing", Document));
+    }
+
+    @Test
+    public void JsonPath_GetPathRawValues_IsCorrect()
+    {
+        List<String> values = Json.getPathRawValues(
+                Arrays.asList("/order/items/1/price", "/customer/name", "/order", "/order/id", "/missing", "/customer/name"), Document);
+
+        Assert.assertEquals("2.5", values.get(0));
+        Assert.assertEquals("\"John Doe\"", values.get(1));
+        Assert.assertEquals(Json.getElementRawValue("order", Document), values.get(2));
+        Assert.assertEquals("17", values.get(3));
+        Assert.assertNull(values.get(4));
+        Assert.assertEquals("\"John Doe\"", values.get(5));
+    }
+
+    @Test
+    public void JsonPath_AllPathsFound_StopsScanning()
+    {
+        String json = "{ \"a\": { \"b\": 1 }, \"c\": 2, \"d\": [ unterminated";
+
+        List<String> values = Json.getPathRawValues(Arrays.asList("/c", "/a/b"), json);
+
+        Assert.assertEquals(Arrays.asList("2", "1"), values);
+    }
+
+    @Test
+    public void JsonPath_InvalidPointer_ThrowsException()
+    {
+        ExceptionAssert.assertThrows(RuntimeException.class, () -> Json.getPathRawValue("order/id", Document));
+        ExceptionAssert.assertThrows(RuntimeException.class, () -> Json.getPathRawValues(Collections.singletonList(null), Document));
+    }
+}
@@ -55,4 +55,26 @@ public class JsonPerformanceIntegrationTests
         System.out.println("Deserialize Simple POJO: " + (long)opsPerSecond + " ops/s");
         Assert.assertTrue(opsPerSecond > 10000);
     }
+
+    @Test
+    public void Json_PerformanceTestThreadScaling_ThroughputDoesNotCollapseUnderContention()
+    {
+        String json = "{ \"Value\": [ \"JC Denton\", \"Adam Jensen\", \"Paul Denton\", \"David Sarif\" ] }";
+        Runnable roundTrip = () -> Json.toJsonString(Json.toObj(SimpleStringListValueObject.class, json));
+
+        double singleThreadedOpsPerSecond = 0;
+        double opsPerSecond = 0;
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        for (int numThreads = 1; ; numThreads = Math.min(numThreads * 2, maxThreads))
+        {
+            opsPerSecond = PerformanceTester.getOpsPerSecond(numThreads, 20000, 5000, roundTrip);
+            if (numThreads == 1)
+                singleThreadedOpsPerSecond = opsPerSecond;
+            System.out.println("Round Trip Simple POJO, " + numThreads + " Threads: " + (long)opsPerSecond + " ops/s");
+            if (numThreads == maxThreads)
+                break;
+        }
+
+        Assert.assertTrue(opsPerSecond > singleThreadedOpsPerSecond * 0.8);
+    }
 }
@@ -3,7 +3,18 @@ package io.theo.json;
 import io.theo.json.testObjects.*;
 import org.junit.*;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 public class JsonSerializerTests
@@ -40,6 +51,33 @@ public class JsonSerializerTests
         Assert.assertEquals("\"John Doe\"", json);
     }
 
+    @Test
+    public void JsonSerializer_ToJsonStringWithSpecialChars_IsEscaped()
+    {
+        String json = Json.toJsonString("Say \"hi\"\\n\ttab\r\n\b\f\u0001\u001f/\u00e9\u65e5");
+
+        Assert.assertEquals("\"Say \\\"hi\\\"\\\\n\\ttab\\r\\n\\b\\f\\u0001\\u001f/\u00e9\u65e5\"", json);
+    }
+
+    @Test
+    public void JsonSerializer_ToJsonMapKeyWithSpecialChars_IsEscaped()
+    {
+        String json = Json.toJsonString(new SimpleStringMapValueObject(Collections.singletonMap("Sample\"Name", "Sample\\Value")));
+
+        Assert.assertEquals("{ \"Value\": [ { \"Sample\\\"Name\": \"Sample\\\\Value\" } ] }", json);
+    }
+
+    @Test
+    public void JsonSerializer_WriteToOutputStreamWithSpecialChars_MatchesToJsonString() throws IOException
+    {
+        SimpleStringValueObject obj = new SimpleStringValueObject("\"quoted\" \\ \u00e9\n");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        Json.writeTo(obj, out);
+
+        Assert.assertEquals(Json.toJsonString(obj), new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
     // Not part of the official JSON Spec. There is no specified way of handling byte arrays.
     @Test
     public void JsonSerializer_ToJsonSingleValueByteArray_EncodedAsBase64String()
@@ -60,6 +98,16 @@ public class JsonSerializerTests
         Assert.assertEquals("[ 1, 2, 3, 4, 5 ]", json);
     }
 
+    @Test
+    public void JsonSerializer_ToJsonArrayFromPrimitiveArrays_IsCorrect()
+    {
+        Assert.assertEquals("[ -9223372036854775808, 0 ]", Json.toJsonString(new long[] { Long.MIN_VALUE, 0 }));
+        Assert.assertEquals("[ 1.5, -0.001, 1.0E20 ]", Json.toJsonString(new double[] { 1.5, -0.001, 1e20 }));
+        Assert.assertEquals("[ 0.25 ]", Json.toJsonString(new float[] { 0.25f }));
+        Assert.assertEquals("[ true, false ]", Json.toJsonString(new boolean[] { true, false }));
+        Assert.assertEquals("[ ]", Json.toJsonString(new int[0]));
+    }
+
     @Test
     public void JsonSerializer_ToJsonArrayFromList_IsCorrect()
     {
@@ -84,6 +132,23 @@ public class JsonSerializerTests
         Assert.assertEquals("{ \"intValue\": 1, \"longValue\": 2, \"floatValue\": 3.1, \"dblValue\": 4.5 }", json);
     }
 
+    @Test
+    public void JsonSerializer_ToJsonPrimitiveData_IsCorrect()
+    {
+        String json = Json.toJsonString(new PrimitiveTypesObject((byte)-7, true, Integer.MIN_VALUE, Long.MAX_VALUE, 0.5f, -1.25));
+
+        Assert.assertEquals("{ \"byteValue\": -7, \"boolValue\": true, \"intValue\": -2147483648, " +
+                "\"longValue\": 9223372036854775807, \"floatValue\": 0.5, \"dblValue\": -1.25 }", json);
+    }
+
+    @Test
+    public void JsonSerializer_ToJsonObjectWithoutFields_IsCorrect()
+    {
+        String json = Json.toJsonString(Arrays.asList(new EmptyObject(), new EmptyObject()));
+
+        Assert.assertEquals("[ { }, { } ]", json);
+    }
+
     @Test
     public void JsonSerializer_ToJsonStringData_IsCorrect()
     {
@@ -190,4 +255,248 @@ public class JsonSerializerTests
 
         Assert.assertEquals("{ \"Value1\": [ \"123\" ], \"Value2\": [ ] }", json);
     }
+
+    @Test
+    public void JsonSerializer_ToJsonStringReentrant_IsCorrect()
+    {
+        List<String> list = new AbstractList<String>()
+        {
+            @Override
+            public String get(final int index)
+            {
+                return Json.toJsonString(new SimpleStringValueObject("a" + index));
+            }
+
+            @Override
+            public int size()
+            {
+                return 2;
+            }
+        };
+
+        String json = Json.toJsonString(new TwoCollectionValueObject(list, Collections.singletonList("b")));
+
+        Assert.assertEquals("{ \"Value1\": [ \"{ \\\"Value\\\": \\\"a0\\\" }\", \"{ \\\"Value\\\": \\\"a1\\\" }\" ], \"Value2\": [ \"b\" ] }", json);
+    }
+
+    @Test
+    public void JsonSerializer_ToJsonStringAfterFailure_IsCorrect()
+    {
+        Map<String, String> failing = new HashMap<String, String>()
+        {
+            @Override
+            public Set<Map.Entry<String, String>> entrySet()
+            {
+                throw new IllegalStateException("Failed");
+            }
+        };
+        ExceptionAssert.assertThrows(IllegalStateException.class, () -> Json.toJsonString(Arrays.asList("a", failing)));
+
+        String json = Json.toJsonString(Collections.singletonList("b"));
+
+        Assert.assertEquals("[ \"b\" ]", json);
+    }
+
+    @Test
+    public void JsonSerializer_ToJsonStringParallelOnCallingThread_MatchesToJsonString()
+    {
+        List<Object> items = IntStream.range(0, 10000).mapToObj(x -> new SimpleStringValueObject("v" + x)).collect(Collectors.toList());
+
+        String json = Json.toJsonStringParallel(items, Runnable::run);
+
+        Assert.assertEquals(Json.toJsonString(items), json);
+    }
+
+    @Test
+    public void JsonSerializer_WriteToOutputStream_MatchesToJsonString() throws IOException
+    {
+        SimpleStringListValueObject obj = createLargeMultilingualObject();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        Json.writeTo(obj, out);
+
+        Assert.assertEquals(Json.toJsonString(obj), new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void JsonSerializer_WriteToWriter_MatchesToJsonString() throws IOException
+    {
+        SimpleStringListValueObject obj = createLargeMultilingualObject();
+        StringWriter writer = new StringWriter();
+
+        Json.writeTo(obj, writer);
+
+        Assert.assertEquals(Json.toJsonString(obj), writer.toString());
+    }
+
+    @Test
+    public void JsonSerializer_WriteToChannel_MatchesToJsonString() throws IOException
+    {
+        SimpleStringListValueObject obj = createLargeMultilingualObject();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        Json.writeTo(obj, Channels.newChannel(out));
+
+        Assert.assertEquals(Json.toJsonString(obj), new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void JsonSerializer_WriteToOutputStream_WrittenInBoundedChunks() throws IOException
+    {
+        List<Integer> chunkSizes = new ArrayList<>();
+        OutputStream out = new OutputStream()
+        {
+            @Override
+            public void write(final int b)
+            {
+                chunkSizes.add(1);
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len)
+            {
+                chunkSizes.add(len);
+            }
+        };
+
+        Json.writeTo(createLargeMultilingualObject(), out);
+
+        Assert.assertTrue(chunkSizes.size() > 1);
+        Assert.assertTrue(chunkSizes.stream().allMatch(x -> x <= 8192));
+    }
+
+    @Test
+    public void JsonSerializer_WriteToFailingOutputStream_ThrowsIOException()
+    {
+        OutputStream out = new OutputStream()
+        {
+            @Override
+            public void write(final int b) throws IOException
+            {
+                throw new IOException("Disk full");
+            }
+        };
+
+        try
+        {
+            Json.writeTo(createLargeMultilingualObject(), out);
+            Assert.fail("Expected IOException");
+        }
+        catch (IOException e)
+        {
+            Assert.assertEquals("Disk full", e.getMessage());
+        }
+    }
+
+    @Test
+    public void JsonSerializer_WriteToAfterFailedWrite_StartsWithEmptyBuffer() throws IOException
+    {
+        SimpleStringValueObject obj = new SimpleStringValueObject("Reused");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        OutputStream failing = new OutputStream()
+        {
+            @Override
+            public void write(final int b) throws IOException
+            {
+                throw new IOException("Disk full");
+            }
+        };
+        try
+        {
+            Json.writeTo(createLargeMultilingualObject(), failing);
+            Assert.fail("Expected IOException");
+        }
+        catch (IOException e)
+        {
+            Assert.assertEquals("Disk full", e.getMessage());
+        }
+
+        Json.writeTo(obj, out);
+
+        Assert.assertEquals(Json.toJsonString(obj), new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void JsonSerializer_WriteToFromWithinWriteTo_BothMatchToJsonString() throws IOException
+    {
+        SimpleStringListValueObject obj = createLargeMultilingualObject();
+        SimpleStringValueObject inner = new SimpleStringValueObject("Inner");
+        ByteArrayOutputStream innerOut = new ByteArrayOutputStream();
+        ByteArrayOutputStream out = new ByteArrayOutputStream()
+        {
+            @Override
+            public synchronized void write(final byte[] bytes, final int offset, final int length)
+            {
+                super.write(bytes, offset, length);
+                try
+                {
+                    Json.writeTo(inner, innerOut);
+                }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+
+        Json.writeTo(obj, out);
+
+        Assert.assertEquals(Json.toJsonString(obj), new String(out.toByteArray(), StandardCharsets.UTF_8));
+        Assert.assertTrue(new String(innerOut.toByteArray(), StandardCharsets.UTF_8).startsWith(Json.toJsonString(inner) + Json.toJsonString(inner)));
+    }
+
+    @Test
+    public void JsonSerializer_ToJsonStringParallel_MatchesToJsonString()
+    {
+        List<Object> items = new ArrayList<>();
+        for (int i = 0; i < 20000; i++)
+            items.add(i % 3 == 0 ? new SimpleIntegerValueObject(i, -i) : i % 3 == 1 ? Arrays.asList("a" + i, null) : new int[] { i, i + 1 });
+
+        String json = Json.toJsonStringParallel(items);
+
+        Assert.assertEquals(Json.toJsonString(items), json);
+    }
+
+    @Test
+    public void JsonSerializer_ToJsonStringParallelPrimitiveArray_MatchesToJsonString()
+    {
+        double[] array = IntStream.range(0, 10001).mapToDouble(x -> x / 7.0).toArray();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            String json = Json.toJsonStringParallel(array, executor);
+
+            Assert.assertEquals(Json.toJsonString(array), json);
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void JsonSerializer_ToJsonStringParallelSmallList_MatchesToJsonString()
+    {
+        TwoCollectionValueObject obj = new TwoCollectionValueObject(Collections.singletonList("123"), new ArrayList<>());
+
+        Assert.assertEquals(Json.toJsonString(obj), Json.toJsonStringParallel(obj));
+    }
+
+    @Test
+    public void JsonSerializer_WriteToParallel_MatchesToJsonString() throws IOException
+    {
+        SimpleStringListValueObject obj = createLargeMultilingualObject();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        Json.writeToParallel(obj, out, ForkJoinPool.commonPool());
+
+        Assert.assertEquals(Json.toJsonString(obj), new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    private static SimpleStringListValueObject createLargeMultilingualObject()
+    {
+        return new SimpleStringListValueObject(IntStream.range(0, 5000)
+                .mapToObj(x -> "Item " + x + " caf\u00e9 \u65e5\u672c \ud83d\ude00")
+                .collect(Collectors.toList()));
+    }
 }
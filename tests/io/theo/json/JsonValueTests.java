@@ -0,0 +1,122 @@
+package io.theo.json;
+
+import io.theo.json.testObjects.*;
+import org.junit.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class JsonValueTests
+{
+    private static final String Document = "{ \"Data1\": \"Something Useless\", \"Price\": 2.57, \"Enum\": \"Value2\", " +
+            "\"Inner\": { \"Value1\": 1, \"Value2\": 2, \"Items\": [ 10, [ 20, 21 ], { \"a\": 30 }, null ] }, \"Empty\": { } }";
+
+    @Test
+    public void JsonValue_GetElementValue_IsCorrect()
+    {
+        Json.JsonValue root = Json.parse(Document);
+
+        Assert.assertEquals(2.57, root.get("Price").getValue(Double.class), 0);
+        Assert.assertEquals("Something Useless", root.get("Data1").getValue(String.class));
+        Assert.assertEquals(SampleEnum.Value2, root.get("Enum").getValue(SampleEnum.class));
+    }
+
+    @Test
+    public void JsonValue_GetNestedElement_IsCorrect()
+    {
+        Json.JsonValue root = Json.parse(Document);
+
+        Assert.assertEquals(30, (int)root.get("Inner").get("Items").get(2).get("a").getValue(Integer.class));
+        Assert.assertEquals(21, (int)root.get("Inner").get("Items").get(1).get(1).getValue(Integer.class));
+    }
+
+    @Test
+    public void JsonValue_GetObjectValue_IsCorrect()
+    {
+        SimpleIntegerValueObject obj = Json.parse(Document).get("Inner").getValue(SimpleIntegerValueObject.class);
+
+        Assert.assertEquals(1, obj.Value1);
+        Assert.assertEquals(2, (int)obj.Value2);
+    }
+
+    @Test
+    public void JsonValue_GetMissingElement_IsNull()
+    {
+        Json.JsonValue root = Json.parse(Document);
+
+        Assert.assertNull(root.get("Missing"));
+        Assert.assertNull(root.get("Price").get("Value1"));
+        Assert.assertNull(root.get("Inner").get("Items").get(4));
+        Assert.assertNull(root.get(0));
+    }
+
+    @Test
+    public void JsonValue_Structure_IsCorrect()
+    {
+        Json.JsonValue root = Json.parse(Document);
+        Json.JsonValue items = root.get("Inner").get("Items");
+
+        Assert.assertTrue(root.isObject());
+        Assert.assertTrue(items.isArray());
+        Assert.assertEquals(5, root.size());
+        Assert.assertEquals(4, items.size());
+        Assert.assertEquals(0, root.get("Empty").size());
+        Assert.assertTrue(items.get(3).isNull());
+        Assert.assertEquals(Arrays.asList("Data1", "Price", "Enum", "Inner", "Empty"), root.getNames());
+    }
+
+    @Test
+    public void JsonValue_GetElements_IsCorrect()
+    {
+        List<String> elements = Json.parse(Document).get("Inner").get("Items").getElements().stream()
+                .map(Json.JsonValue::getRawValue)
+                .collect(Collectors.toList());
+
+        Assert.assertEquals(Arrays.asList("10", "[ 20, 21 ]", "{ \"a\": 30 }", "null"), elements);
+    }
+
+    @Test
+    public void JsonValue_GetRawValue_IsCorrect()
+    {
+        Json.JsonValue root = Json.parse(Document);
+
+        Assert.assertEquals(Json.getElementRawValue("Inner", Document), root.get("Inner").getRawValue());
+        Assert.assertEquals("\"Something Useless\"", root.get("Data1").getRawValue());
+    }
+
+    @Test
+    public void JsonValue_EscapedNames_AreUnescaped()
+    {
+        Json.JsonValue root = Json.parse("{ \"a\\\"b\": \"x\\ty\", \"c\\u0064\": 1 }");
+
+        Assert.assertEquals(Arrays.asList("a\"b", "cd"), root.getNames());
+        Assert.assertEquals("x\ty", root.get("a\"b").getValue(String.class));
+        Assert.assertEquals(1, (int)root.get("cd").getValue(Integer.class));
+        Assert.assertNull(root.get("c"));
+    }
+
+    @Test
+    public void JsonValue_ParseUnterminated_ThrowsException()
+    {
+        ExceptionAssert.assertThrows(RuntimeException.class, () -> Json.parse("{ \"Value\": [ 1, 2 }"));
+    }
+
+    @Test
+    public void JsonValue_ParseNull_ThrowsException()
+    {
+        ExceptionAssert.assertThrows(RuntimeException.class, () -> Json.parse(null));
+    }
+
+    @Test
+    public void JsonValue_ParseTrailingContent_ThrowsException()
+    {
+        ExceptionAssert.assertThrows(RuntimeException.class, () -> Json.parse("{\"a\":1} x"));
+    }
+
+    @Test
+    public void JsonValue_ParseTrailingWhitespace_IsCorrect()
+    {
+        Assert.assertEquals(Integer.valueOf(1), Json.parse(" {\"a\":1} \n").get("a").getValue(Integer.class));
+    }
+}
@@ -0,0 +1,88 @@
+package io.theo.json;
+
+import io.theo.json.testObjects.*;
+import org.junit.*;
+
+import java.util.List;
+
+public class JsonWarmUpTests
+{
+    // Cache misses show whether the first use still had plans to build. Test classes run in their own JVM.
+    static
+    {
+        System.setProperty("io.theo.json.metrics", "true");
+    }
+
+    @Test
+    public void Json_Register_FirstUseBuildsNothing() throws Exception
+    {
+        Class<?> type = new IsolatedClassLoader().loadClass(SimpleSubObjectValueObject.class.getName());
+
+        Json.register(type);
+        JsonMetrics.reset();
+        Object obj = Json.toObj(type, "{ \"Value\": { \"Value1\": 17, \"Value2\": 18 } }");
+        Json.toJsonString(obj);
+
+        for (JsonMetrics.Cache cache : JsonMetrics.Cache.values())
+            Assert.assertEquals(cache.name(), 0, JsonMetrics.getCacheMetrics().get(cache).getMisses());
+    }
+
+    @Test
+    public void Json_RegisterGenericField_RegistersTypeArguments() throws Exception
+    {
+        ClassLoader loader = new IsolatedClassLoader();
+        Class<?> type = loader.loadClass(CustomObjListValueObject.class.getName());
+        Class<?> itemType = loader.loadClass(NumericTypesObject.class.getName());
+
+        Json.register(type);
+        JsonMetrics.reset();
+        Json.toObj(itemType, "{ \"intValue\": 1 }");
+
+        Assert.assertEquals(0, JsonMetrics.getCacheMetrics().get(JsonMetrics.Cache.Readers).getMisses());
+        Assert.assertEquals(0, JsonMetrics.getCacheMetrics().get(JsonMetrics.Cache.Constructors).getMisses());
+    }
+
+    @Test
+    public void Json_WarmUp_EncodesAndDecodesEachRound()
+    {
+        JsonMetrics.reset();
+
+        Json.warmUp(25, CustomObjListValueObject.class, SimpleStringValueObject.class);
+
+        JsonMetrics.TypeMetrics metrics = JsonMetrics.getTypeMetrics().get(CustomObjListValueObject.class);
+        Assert.assertEquals(25, metrics.getEncodedDocuments());
+        Assert.assertEquals(50, metrics.getDecodedDocuments());
+        // The synthetic instance, and one per decoded document
+        Assert.assertEquals(51, JsonMetrics.getTypeMetrics().get(NumericTypesObject.class).getInstancesCreated());
+        Assert.assertEquals(50, JsonMetrics.getTypeMetrics().get(SimpleStringValueObject.class).getDecodedDocuments());
+    }
+
+    @Test
+    public void Json_WarmUpRecursiveType_Terminates()
+    {
+        JsonMetrics.reset();
+
+        Json.warmUp(5, RecursiveNodeObject.class);
+
+        Assert.assertEquals(10, JsonMetrics.getTypeMetrics().get(RecursiveNodeObject.class).getDecodedDocuments());
+    }
+
+    @Test
+    public void Json_WarmUpTypesWithoutSamples_DoesNotThrow()
+    {
+        Json.warmUp(5, List.class, Object.class, int.class, TwoCollectionValueObject.class, GenericKeyValueObject.class);
+    }
+
+    @Test
+    public void Json_RegisterNull_ThrowsJsonException()
+    {
+        ExceptionAssert.assertThrows(RuntimeException.class, () -> Json.register((Class<?>)null));
+        ExceptionAssert.assertThrows(RuntimeException.class, () -> Json.register((Class<?>[])null));
+    }
+
+    @Test
+    public void Json_WarmUpNegativeRounds_ThrowsJsonException()
+    {
+        ExceptionAssert.assertThrows(RuntimeException.class, () -> Json.warmUp(-1, SimpleStringValueObject.class));
+    }
+}
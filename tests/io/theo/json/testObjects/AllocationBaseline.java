@@ -0,0 +1,91 @@
+package io.theo.json.testObjects;
+
+import org.junit.Assert;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Per-scenario budgets of bytes allocated per operation, stored as "scenario=bytes" lines.
+// With allocation.update=true, measurements are recorded instead of checked, and written back by save().
+public final class AllocationBaseline
+{
+    private final Path _path;
+    private final double _tolerancePercent;
+    private final boolean _isUpdating;
+    private final Map<String, Long> _budgets = new TreeMap<>();
+
+    private AllocationBaseline(final Path path, final double tolerancePercent, final boolean isUpdating)
+    {
+        _path = path;
+        _tolerancePercent = tolerancePercent;
+        _isUpdating = isUpdating;
+    }
+
+    public static AllocationBaseline fromSystemProperties()
+    {
+        AllocationBaseline baseline = new AllocationBaseline(
+                Paths.get(System.getProperty("allocation.baseline", "tests/allocation-baseline.properties")),
+                Double.parseDouble(System.getProperty("allocation.tolerance", "10")),
+                Boolean.getBoolean("allocation.update"));
+        baseline.load();
+        return baseline;
+    }
+
+    private void load()
+    {
+        if (!Files.exists(_path))
+            return;
+        try
+        {
+            for (String line : Files.readAllLines(_path, StandardCharsets.UTF_8))
+            {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#"))
+                    continue;
+                int separator = line.indexOf('=');
+                _budgets.put(line.substring(0, separator).trim(), Long.parseLong(line.substring(separator + 1).trim()));
+            }
+        }
+        catch (IOException e)
+        {
+            throw new IllegalStateException("Unable to read allocation baseline " + _path, e);
+        }
+    }
+
+    public void check(final String scenario, final long bytesPerOp)
+    {
+        System.out.println(scenario + ": " + bytesPerOp + " bytes/op");
+        if (_isUpdating)
+        {
+            _budgets.put(scenario, bytesPerOp);
+            return;
+        }
+
+        Long budget = _budgets.get(scenario);
+        if (budget == null)
+            Assert.fail(scenario + " has no allocation baseline. Record one with -Dallocation.update=true (measured " + bytesPerOp + " bytes/op).");
+        long limit = (long)(budget * (1 + _tolerancePercent / 100));
+        if (bytesPerOp > limit)
+            Assert.fail(scenario + " allocated " + bytesPerOp + " bytes/op, which exceeds its baseline of " + budget
+                    + " bytes/op by more than " + _tolerancePercent + "%.");
+    }
+
+    public void save() throws IOException
+    {
+        if (!_isUpdating)
+            return;
+        List<String> lines = new ArrayList<>();
+        lines.add("# Bytes allocated per operation by JsonAllocationIntegrationTests. Regenerate with: ant allocationTest -Dallocation.update=true");
+        lines.add("# Recorded on " + System.getProperty("java.vm.name") + " " + System.getProperty("java.version"));
+        for (Map.Entry<String, Long> budget : _budgets.entrySet())
+            lines.add(budget.getKey() + "=" + budget.getValue());
+        Files.write(_path, lines, StandardCharsets.UTF_8);
+    }
+}
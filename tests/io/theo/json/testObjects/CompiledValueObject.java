@@ -0,0 +1,26 @@
+package io.theo.json.testObjects;
+
+import io.theo.json.Json;
+
+import java.util.List;
+import java.util.Map;
+
+@Json.Compiled
+public class CompiledValueObject
+{
+    public int intValue;
+    public long longValue;
+    public double dblValue;
+    public boolean boolValue;
+    public String strValue;
+    public Integer boxedValue;
+    public SampleEnum enumValue;
+    public List<String> listValue;
+    public Map<String, Integer> mapValue;
+    public SimpleIntegerValueObject objValue;
+
+    public CompiledValueObject()
+    {
+        strValue = "Constructed";
+    }
+}
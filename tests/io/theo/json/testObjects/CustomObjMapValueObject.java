@@ -0,0 +1,13 @@
+package io.theo.json.testObjects;
+
+import java.util.Map;
+
+public class CustomObjMapValueObject
+{
+    public Map<String, NumericTypesObject> Value;
+
+    public CustomObjMapValueObject(final Map<String, NumericTypesObject> value)
+    {
+        Value = value;
+    }
+}
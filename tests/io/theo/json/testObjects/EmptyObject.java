@@ -0,0 +1,5 @@
+package io.theo.json.testObjects;
+
+public class EmptyObject
+{
+}
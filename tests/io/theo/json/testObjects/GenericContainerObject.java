@@ -0,0 +1,18 @@
+package io.theo.json.testObjects;
+
+import java.util.List;
+import java.util.Map;
+
+public class GenericContainerObject<T>
+{
+    public List<T> Items;
+    public Map<String, List<T>> Groups;
+    public T[] Array;
+
+    public GenericContainerObject(final List<T> items, final Map<String, List<T>> groups, final T[] array)
+    {
+        Items = items;
+        Groups = groups;
+        Array = array;
+    }
+}
@@ -0,0 +1,15 @@
+package io.theo.json.testObjects;
+
+import java.util.List;
+
+public class GenericTreeObject<T>
+{
+    public T Value;
+    public List<GenericTreeObject<T>> Children;
+
+    public GenericTreeObject(final T value, final List<GenericTreeObject<T>> children)
+    {
+        Value = value;
+        Children = children;
+    }
+}
@@ -0,0 +1,8 @@
+package io.theo.json.testObjects;
+
+// "Aa" and "BB" have the same String hash code
+public class HashCollisionObject
+{
+    public String Aa;
+    public String BB;
+}
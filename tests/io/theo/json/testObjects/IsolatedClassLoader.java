@@ -0,0 +1,63 @@
+package io.theo.json.testObjects;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+// Defines its own copy of every test object class, so each instance yields brand new, never-before-seen Class objects.
+// Given a wider package, such as the library's own, it stands in for a redeployed application that bundles the library.
+public class IsolatedClassLoader extends ClassLoader
+{
+    private static final String IsolatedPackage = "io.theo.json.testObjects.";
+
+    private final String _isolatedPackage;
+
+    public IsolatedClassLoader()
+    {
+        this(IsolatedPackage);
+    }
+
+    public IsolatedClassLoader(final String isolatedPackage)
+    {
+        super(IsolatedClassLoader.class.getClassLoader());
+        _isolatedPackage = isolatedPackage;
+    }
+
+    @Override
+    protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException
+    {
+        if (!name.startsWith(_isolatedPackage) || name.equals(IsolatedClassLoader.class.getName()))
+            return super.loadClass(name, resolve);
+
+        synchronized (getClassLoadingLock(name))
+        {
+            Class<?> type = findLoadedClass(name);
+            if (type == null)
+            {
+                byte[] bytes = readClassBytes(name);
+                type = defineClass(name, bytes, 0, bytes.length);
+            }
+            if (resolve)
+                resolveClass(type);
+            return type;
+        }
+    }
+
+    private byte[] readClassBytes(final String name) throws ClassNotFoundException
+    {
+        try (InputStream input = getParent().getResourceAsStream(name.replace('.', '/') + ".class"))
+        {
+            if (input == null)
+                throw new ClassNotFoundException(name);
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            for (int read = input.read(buffer); read != -1; read = input.read(buffer))
+                output.write(buffer, 0, read);
+            return output.toByteArray();
+        }
+        catch (IOException e)
+        {
+            throw new ClassNotFoundException(name, e);
+        }
+    }
+}
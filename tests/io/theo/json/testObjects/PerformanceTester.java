@@ -1,7 +1,12 @@
 package io.theo.json.testObjects;
 
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CyclicBarrier;
+
 public final class PerformanceTester
 {
+    private static final int NumAllocationRounds = 5;
+
     private PerformanceTester()
     {
     }
@@ -21,4 +26,74 @@ public final class PerformanceTester
         double opsPerSecond = (double)1_000_000_000 / nanosPerOp;
         return opsPerSecond;
     }
+
+    public static double getOpsPerSecond(final int numThreads, final int numTestOpsPerThread, final int numWarmUps, final Runnable operation)
+    {
+        for (int i = 0; i < numWarmUps; i++)
+            operation.run();
+
+        CyclicBarrier barrier = new CyclicBarrier(numThreads + 1);
+        Thread[] threads = new Thread[numThreads];
+        for (int t = 0; t < numThreads; t++)
+        {
+            threads[t] = new Thread(() -> {
+                await(barrier);
+                for (int i = 0; i < numTestOpsPerThread; i++)
+                    operation.run();
+                await(barrier);
+            });
+            threads[t].start();
+        }
+
+        await(barrier);
+        long startTimeNano = System.nanoTime();
+        await(barrier);
+        long stopTimeNano = System.nanoTime();
+
+        long durationNano = stopTimeNano - startTimeNano;
+        double nanosPerOp = (double)durationNano / ((double)numTestOpsPerThread * numThreads);
+        double opsPerSecond = (double)1_000_000_000 / nanosPerOp;
+        return opsPerSecond;
+    }
+
+    // Bytes allocated by the calling thread per operation, as counted by HotSpot's thread allocation tracking.
+    // Takes the fewest of several rounds: a round that the JIT recompiles part of the operation during, such as after
+    // an earlier scenario has changed the profile of shared code, only ever allocates more than the compiled code does.
+    public static long getAllocatedBytesPerOp(final int numTestOps, final int numWarmUps, final Runnable operation)
+    {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean))
+            throw new UnsupportedOperationException("Thread allocation tracking requires a HotSpot based JVM.");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)bean;
+        if (!threads.isThreadAllocatedMemorySupported())
+            throw new UnsupportedOperationException("Thread allocation tracking is not supported by this JVM.");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        for (int i = 0; i < numWarmUps; i++)
+            operation.run();
+
+        long threadId = Thread.currentThread().getId();
+        long fewestBytes = Long.MAX_VALUE;
+        for (int round = 0; round < NumAllocationRounds; round++)
+        {
+            long startBytes = threads.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < numTestOps; i++)
+                operation.run();
+            long stopBytes = threads.getThreadAllocatedBytes(threadId);
+            fewestBytes = Math.min(fewestBytes, (stopBytes - startBytes) / numTestOps);
+        }
+        return fewestBytes;
+    }
+
+    private static void await(final CyclicBarrier barrier)
+    {
+        try
+        {
+            barrier.await();
+        }
+        catch (Exception e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
 }
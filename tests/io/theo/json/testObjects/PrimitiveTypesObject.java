@@ -0,0 +1,25 @@
+package io.theo.json.testObjects;
+
+public class PrimitiveTypesObject
+{
+    public byte byteValue;
+    public boolean boolValue;
+    public int intValue;
+    public long longValue;
+    public float floatValue;
+    public double dblValue;
+
+    public PrimitiveTypesObject()
+    {
+    }
+
+    public PrimitiveTypesObject(byte byteValue, boolean boolValue, int intValue, long longValue, float floatValue, double dblValue)
+    {
+        this.byteValue = byteValue;
+        this.boolValue = boolValue;
+        this.intValue = intValue;
+        this.longValue = longValue;
+        this.floatValue = floatValue;
+        this.dblValue = dblValue;
+    }
+}
@@ -0,0 +1,17 @@
+package io.theo.json.testObjects;
+
+public class RecursiveNodeObject
+{
+    public String Name;
+    public RecursiveNodeObject Child;
+
+    public RecursiveNodeObject()
+    {
+    }
+
+    public RecursiveNodeObject(final String name, final RecursiveNodeObject child)
+    {
+        Name = name;
+        Child = child;
+    }
+}
@@ -0,0 +1,9 @@
+package io.theo.json.testObjects;
+
+public class SubObjectKeyValueObject extends GenericKeyValueObject<SimpleStringValueObject>
+{
+    public SubObjectKeyValueObject(final String key, final SimpleStringValueObject value)
+    {
+        super(key, value);
+    }
+}
@@ -0,0 +1,41 @@
+package io.theo.json.testObjects;
+
+import java.io.IOException;
+import java.io.Reader;
+
+// Hands out the text a few chars per read, so parsing crosses a buffer refill at every position.
+// Fails instead of reporting the end of input when created with failAtEnd.
+public class TrickleReader extends Reader
+{
+    private final String _text;
+    private final int _charsPerRead;
+    private final boolean _failAtEnd;
+    private int _pos;
+
+    public TrickleReader(final String text, final int charsPerRead, final boolean failAtEnd)
+    {
+        _text = text;
+        _charsPerRead = charsPerRead;
+        _failAtEnd = failAtEnd;
+    }
+
+    @Override
+    public int read(final char[] buffer, final int offset, final int length) throws IOException
+    {
+        if (_pos == _text.length())
+        {
+            if (_failAtEnd)
+                throw new IOException("Connection reset");
+            return -1;
+        }
+        int count = Math.min(Math.min(length, _charsPerRead), _text.length() - _pos);
+        _text.getChars(_pos, _pos + count, buffer, offset);
+        _pos += count;
+        return count;
+    }
+
+    @Override
+    public void close()
+    {
+    }
+}
@@ -0,0 +1,8 @@
+package io.theo.json.testObjects;
+
+// Field names outside of ASCII
+public class UnicodeFieldNameObject
+{
+    public String Caf\u00e9;
+    public int \u65e5\u672c;
+}